@@ -1,5 +1,11 @@
 package com.sonatel.config;
 
+import com.hazelcast.config.EvictionPolicy;
+import com.hazelcast.config.InMemoryFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -13,12 +19,48 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Bulk bulk = new Bulk();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Cache cache = new Cache();
+
+    private final Replication replication = new Replication();
+
+    private final Stats stats = new Stats();
+
+    private final Partitioning partitioning = new Partitioning();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Bulk getBulk() {
+        return bulk;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Replication getReplication() {
+        return replication;
+    }
+
+    public Stats getStats() {
+        return stats;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +75,436 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Bulk {
+
+        /** Number of commandes persisted, flushed and committed together. */
+        private int chunkSize = 500;
+
+        /** Maximum number of commandes accepted by one bulk request. */
+        private int maxItems = 50_000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    public static class Idempotency {
+
+        /** How long the response to an Idempotency-Key is kept for replay. */
+        private int timeToLiveSeconds = 86_400;
+
+        /** How long a request holds the lock on its Idempotency-Key before it is released anyway. */
+        private int lockLeaseSeconds = 30;
+
+        public int getTimeToLiveSeconds() {
+            return timeToLiveSeconds;
+        }
+
+        public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+            this.timeToLiveSeconds = timeToLiveSeconds;
+        }
+
+        public int getLockLeaseSeconds() {
+            return lockLeaseSeconds;
+        }
+
+        public void setLockLeaseSeconds(int lockLeaseSeconds) {
+            this.lockLeaseSeconds = lockLeaseSeconds;
+        }
+    }
+
+    public static class Cache {
+
+        /** Per-node cache in front of the Hazelcast map of each Spring cache. */
+        private final L1 l1 = new L1();
+
+        /** L1 settings of individual caches, by cache name, overriding {@code l1}. */
+        private final Map<String, L1> regions = new HashMap<>();
+
+        /** Hazelcast near cache of the Hibernate second-level cache regions of the domain entities. */
+        private final NearCache nearCache = new NearCache();
+
+        /** Loading of the recent commandes into the second-level cache on startup. */
+        private final WarmUp warmUp = new WarmUp();
+
+        /** Connection to a separate Hazelcast cluster, instead of an embedded member. */
+        private final Client client = new Client();
+
+        /** Discovery of the embedded Hazelcast members through the discovery service. */
+        private final Discovery discovery = new Discovery();
+
+        public L1 getL1() {
+            return l1;
+        }
+
+        public Map<String, L1> getRegions() {
+            return regions;
+        }
+
+        public NearCache getNearCache() {
+            return nearCache;
+        }
+
+        public WarmUp getWarmUp() {
+            return warmUp;
+        }
+
+        public Client getClient() {
+            return client;
+        }
+
+        public Discovery getDiscovery() {
+            return discovery;
+        }
+
+        public static class L1 {
+
+            private long maximumSize = 10_000;
+
+            private int timeToLiveSeconds = 60;
+
+            public long getMaximumSize() {
+                return maximumSize;
+            }
+
+            public void setMaximumSize(long maximumSize) {
+                this.maximumSize = maximumSize;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+
+        public static class NearCache {
+
+            private boolean enabled = true;
+
+            /** OBJECT skips deserialization on hits; the Hibernate cache entries it holds are never mutated. */
+            private InMemoryFormat inMemoryFormat = InMemoryFormat.OBJECT;
+
+            /** Maximum number of entries per region and node. */
+            private int maxSize = 10_000;
+
+            private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+            /** Drop near-cached entries when they change on their owner member. */
+            private boolean invalidateOnChange = true;
+
+            /** 0 keeps entries until evicted or invalidated. */
+            private int timeToLiveSeconds = 0;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public InMemoryFormat getInMemoryFormat() {
+                return inMemoryFormat;
+            }
+
+            public void setInMemoryFormat(InMemoryFormat inMemoryFormat) {
+                this.inMemoryFormat = inMemoryFormat;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public EvictionPolicy getEvictionPolicy() {
+                return evictionPolicy;
+            }
+
+            public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+                this.evictionPolicy = evictionPolicy;
+            }
+
+            public boolean isInvalidateOnChange() {
+                return invalidateOnChange;
+            }
+
+            public void setInvalidateOnChange(boolean invalidateOnChange) {
+                this.invalidateOnChange = invalidateOnChange;
+            }
+
+            public int getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(int timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+        }
+
+        public static class WarmUp {
+
+            private boolean enabled = true;
+
+            /** Commandes dated within this many days are loaded, one day at a time. */
+            private int days = 7;
+
+            /** Number of days loaded concurrently, each on a thread of the cacheWarmUpExecutor. */
+            private int parallelism = 4;
+
+            /** The node reports ready once this is spent, even if the warm-up is not over. */
+            private int timeBudgetSeconds = 120;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getDays() {
+                return days;
+            }
+
+            public void setDays(int days) {
+                this.days = days;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+
+            public int getTimeBudgetSeconds() {
+                return timeBudgetSeconds;
+            }
+
+            public void setTimeBudgetSeconds(int timeBudgetSeconds) {
+                this.timeBudgetSeconds = timeBudgetSeconds;
+            }
+        }
+
+        public static class Client {
+
+            private boolean enabled = false;
+
+            private String clusterName = "dev";
+
+            /** Members to connect to, as {@code host:port}. */
+            private List<String> addresses = new ArrayList<>(List.of("127.0.0.1:5701"));
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getClusterName() {
+                return clusterName;
+            }
+
+            public void setClusterName(String clusterName) {
+                this.clusterName = clusterName;
+            }
+
+            public List<String> getAddresses() {
+                return addresses;
+            }
+
+            public void setAddresses(List<String> addresses) {
+                this.addresses = addresses;
+            }
+        }
+
+        public static class Discovery {
+
+            /** Interval between two lookups of the members registered in the discovery service. */
+            private int refreshSeconds = 30;
+
+            public int getRefreshSeconds() {
+                return refreshSeconds;
+            }
+
+            public void setRefreshSeconds(int refreshSeconds) {
+                this.refreshSeconds = refreshSeconds;
+            }
+        }
+    }
+
+    public static class Replication {
+
+        /** Send read-only transactions to the replicas below. */
+        private boolean enabled = false;
+
+        /** A replica further behind its source than this is skipped until it catches up. */
+        private int maxLagSeconds = 5;
+
+        private int checkIntervalSeconds = 5;
+
+        private List<Replica> replicas = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        public void setMaxLagSeconds(int maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        public int getCheckIntervalSeconds() {
+            return checkIntervalSeconds;
+        }
+
+        public void setCheckIntervalSeconds(int checkIntervalSeconds) {
+            this.checkIntervalSeconds = checkIntervalSeconds;
+        }
+
+        public List<Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<Replica> replicas) {
+            this.replicas = replicas;
+        }
+
+        public static class Replica {
+
+            private String url;
+
+            /** Defaults to the one of the primary datasource. */
+            private String username;
+
+            /** Defaults to the one of the primary datasource. */
+            private String password;
+
+            public String getUrl() {
+                return url;
+            }
+
+            public void setUrl(String url) {
+                this.url = url;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+
+            public void setUsername(String username) {
+                this.username = username;
+            }
+
+            public String getPassword() {
+                return password;
+            }
+
+            public void setPassword(String password) {
+                this.password = password;
+            }
+        }
+    }
+
+    public static class Stats {
+
+        /** Pause between two folds of the pending deltas into the rollups. */
+        private int foldIntervalSeconds = 10;
+
+        /** Deltas folded per transaction. */
+        private int foldBatchSize = 5_000;
+
+        public int getFoldIntervalSeconds() {
+            return foldIntervalSeconds;
+        }
+
+        public void setFoldIntervalSeconds(int foldIntervalSeconds) {
+            this.foldIntervalSeconds = foldIntervalSeconds;
+        }
+
+        public int getFoldBatchSize() {
+            return foldBatchSize;
+        }
+
+        public void setFoldBatchSize(int foldBatchSize) {
+            this.foldBatchSize = foldBatchSize;
+        }
+    }
+
+    public static class Partitioning {
+
+        /** When the partitions are maintained, in UTC. */
+        private String cron = "0 0 3 * * *";
+
+        /** Months after the current one that always have their partition. */
+        private int aheadMonths = 3;
+
+        /** Months before the current one kept in commande, 0 keeping all of them. */
+        private int retentionMonths = 0;
+
+        /** Move an expired month to its own commande_archive_YYYYMM table rather than dropping it. */
+        private boolean archive = true;
+
+        public String getCron() {
+            return cron;
+        }
+
+        public void setCron(String cron) {
+            this.cron = cron;
+        }
+
+        public int getAheadMonths() {
+            return aheadMonths;
+        }
+
+        public void setAheadMonths(int aheadMonths) {
+            this.aheadMonths = aheadMonths;
+        }
+
+        public int getRetentionMonths() {
+            return retentionMonths;
+        }
+
+        public void setRetentionMonths(int retentionMonths) {
+            this.retentionMonths = retentionMonths;
+        }
+
+        public boolean isArchive() {
+            return archive;
+        }
+
+        public void setArchive(boolean archive) {
+            this.archive = archive;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
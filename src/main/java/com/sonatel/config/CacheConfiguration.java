@@ -1,24 +1,36 @@
 package com.sonatel.config;
 
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.config.*;
 import com.hazelcast.core.Hazelcast;
 import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.hibernate.CacheEnvironment;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+import com.hazelcast.spi.properties.ClusterProperty;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PreDestroy;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.hibernate.cfg.AvailableSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
 import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.cloud.client.serviceregistry.Registration;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import tech.jhipster.config.JHipsterConstants;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
@@ -32,6 +44,11 @@ public class CacheConfiguration {
 
     private static final Logger LOG = LoggerFactory.getLogger(CacheConfiguration.class);
 
+    /**
+     * Hazelcast maps of the Hibernate second-level cache regions.
+     */
+    private static final String DOMAIN_MAPS = "com.sonatel.domain.*";
+
     private final Environment env;
 
     private final ServerProperties serverProperties;
@@ -55,16 +72,66 @@ public class CacheConfiguration {
     public void destroy() {
         LOG.info("Closing Cache Manager");
         Hazelcast.shutdownAll();
+        HazelcastClient.shutdownAll();
     }
 
     @Bean
-    public CacheManager cacheManager(HazelcastInstance hazelcastInstance) {
-        LOG.debug("Starting HazelcastCacheManager");
-        return new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance);
+    public CacheManager cacheManager(
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        LOG.debug("Starting TieredCacheManager");
+        return new TieredCacheManager(
+            new com.hazelcast.spring.cache.HazelcastCacheManager(hazelcastInstance),
+            applicationProperties.getCache(),
+            meterRegistry,
+            // A client is no member, its own writes cannot be told apart
+            applicationProperties.getCache().getClient().isEnabled() ? null : hazelcastInstance.getCluster().getLocalMember()
+        );
     }
 
+    /**
+     * Point the Hibernate region factory at the {@link HazelcastInstance} bean. Asking for the bean also makes sure it is
+     * started before the region factory looks it up by name.
+     * <p>
+     * The second-level cache entries are stored structured, as maps of property names to disassembled values, which
+     * Hazelcast writes with its built-in serializers instead of the class descriptors of Java serialization.
+     */
     @Bean
-    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties) {
+    public HibernatePropertiesCustomizer hazelcastHibernatePropertiesCustomizer(
+        HazelcastInstance hazelcastInstance,
+        ApplicationProperties applicationProperties
+    ) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_STRUCTURED_CACHE, "true");
+            if (applicationProperties.getCache().getClient().isEnabled()) {
+                hibernateProperties.put(CacheEnvironment.USE_NATIVE_CLIENT, "true");
+                hibernateProperties.put(CacheEnvironment.NATIVE_CLIENT_INSTANCE_NAME, hazelcastInstance.getName());
+            }
+        };
+    }
+
+    /**
+     * Threads of the cache warm-up, one per day loaded concurrently, released once idle. Only injected by name, so it
+     * does not replace the shared task executor.
+     */
+    @Bean(name = "cacheWarmUpExecutor", defaultCandidate = false)
+    public ThreadPoolTaskExecutor cacheWarmUpExecutor(ApplicationProperties applicationProperties) {
+        int parallelism = Math.max(1, applicationProperties.getCache().getWarmUp().getParallelism());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("cache-warm-up-");
+        return executor;
+    }
+
+    @Bean
+    public HazelcastInstance hazelcastInstance(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        if (applicationProperties.getCache().getClient().isEnabled()) {
+            return hazelcastClient(jHipsterProperties, applicationProperties);
+        }
         LOG.debug("Configuring Hazelcast");
         HazelcastInstance hazelCastInstance = Hazelcast.getHazelcastInstanceByName("commandes");
         if (hazelCastInstance != null) {
@@ -88,28 +155,102 @@ public class CacheConfiguration {
                 );
 
                 config.getNetworkConfig().setPort(serverProperties.getPort() + 5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = "127.0.0.1:" + (instance.getPort() + 5701);
-                    LOG.debug("Adding Hazelcast (dev) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                initializeDiscoveryConfig(
+                    config,
+                    new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, instance ->
+                        new InetSocketAddress("127.0.0.1", instance.getPort() + 5701)
+                    ),
+                    applicationProperties
+                );
             } else { // Production configuration, one host per instance all using port 5701
                 config.getNetworkConfig().setPort(5701);
-                config.getNetworkConfig().getJoin().getTcpIpConfig().setEnabled(true);
-                for (ServiceInstance instance : discoveryClient.getInstances(serviceId)) {
-                    String clusterMember = instance.getHost() + ":5701";
-                    LOG.debug("Adding Hazelcast (prod) cluster member {}", clusterMember);
-                    config.getNetworkConfig().getJoin().getTcpIpConfig().addMember(clusterMember);
-                }
+                initializeDiscoveryConfig(
+                    config,
+                    new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, serviceId, instance ->
+                        new InetSocketAddress(instance.getHost(), 5701)
+                    ),
+                    applicationProperties
+                );
             }
         }
         config.setManagementCenterConfig(new ManagementCenterConfig());
+        initializeSerialization(config.getSerializationConfig());
         config.addMapConfig(initializeDefaultMapConfig(jHipsterProperties));
-        config.addMapConfig(initializeDomainMapConfig(jHipsterProperties));
+        MapConfig domainMapConfig = initializeDomainMapConfig(jHipsterProperties);
+        if (this.registration != null) {
+            // Alone, this member owns every entry and a near cache would only hold a second copy of them
+            initializeNearCacheConfig(applicationProperties).ifPresent(domainMapConfig::setNearCacheConfig);
+        }
+        config.addMapConfig(domainMapConfig);
+        initializeCacheMapConfigs(jHipsterProperties, applicationProperties).forEach(config::addMapConfig);
         return Hazelcast.newHazelcastInstance(config);
     }
 
+    /**
+     * Find the members through the discovery service, asking it again on every merge check so that members registered
+     * after this one started are joined too.
+     */
+    static void initializeDiscoveryConfig(
+        Config config,
+        DiscoveryStrategyFactory discoveryStrategyFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        JoinConfig joinConfig = config.getNetworkConfig().getJoin();
+        joinConfig.getTcpIpConfig().setEnabled(false);
+        joinConfig.getAutoDetectionConfig().setEnabled(false);
+        joinConfig.getDiscoveryConfig().addDiscoveryStrategyConfig(new DiscoveryStrategyConfig(discoveryStrategyFactory));
+        config.setProperty(ClusterProperty.DISCOVERY_SPI_ENABLED.getName(), "true");
+        String refreshSeconds = String.valueOf(applicationProperties.getCache().getDiscovery().getRefreshSeconds());
+        config.setProperty(ClusterProperty.MERGE_FIRST_RUN_DELAY_SECONDS.getName(), refreshSeconds);
+        config.setProperty(ClusterProperty.MERGE_NEXT_RUN_DELAY_SECONDS.getName(), refreshSeconds);
+    }
+
+    /**
+     * Connect to a separate Hazelcast cluster, so that cache data and partition migrations stay out of this JVM. The
+     * near cache of the domain maps is kept on the client.
+     */
+    private HazelcastInstance hazelcastClient(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        HazelcastInstance hazelcastClient = HazelcastClient.getHazelcastClientByName("commandes");
+        if (hazelcastClient != null) {
+            LOG.debug("Hazelcast client already initialized");
+            return hazelcastClient;
+        }
+        ApplicationProperties.Cache.Client client = applicationProperties.getCache().getClient();
+        LOG.debug("Connecting to Hazelcast cluster {} at {}", client.getClusterName(), client.getAddresses());
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setInstanceName("commandes");
+        clientConfig.setClusterName(client.getClusterName());
+        clientConfig.getNetworkConfig().setAddresses(new ArrayList<>(client.getAddresses()));
+        initializeSerialization(clientConfig.getSerializationConfig());
+        initializeNearCacheConfig(applicationProperties).ifPresent(clientConfig::addNearCacheConfig);
+        hazelcastClient = HazelcastClient.newHazelcastClient(clientConfig);
+
+        // The members own the map settings; add ours as dynamic configuration, unless the cluster already has its own
+        Config config = hazelcastClient.getConfig();
+        List<MapConfig> mapConfigs = new ArrayList<>();
+        mapConfigs.add(initializeDomainMapConfig(jHipsterProperties));
+        mapConfigs.addAll(initializeCacheMapConfigs(jHipsterProperties, applicationProperties));
+        for (MapConfig mapConfig : mapConfigs) {
+            try {
+                config.addMapConfig(mapConfig);
+            } catch (InvalidConfigurationException e) {
+                LOG.warn("Keeping the cluster configuration of Hazelcast map {}: {}", mapConfig.getName(), e.getMessage());
+            }
+        }
+        return hazelcastClient;
+    }
+
+    /**
+     * Serializers of the values this application puts in Hazelcast: Compact ones for the cached DTOs and idempotent
+     * results. Hibernate's second-level cache entries are structured maps, which need none.
+     */
+    static void initializeSerialization(SerializationConfig serializationConfig) {
+        serializationConfig
+            .getCompactSerializationConfig()
+            .addSerializer(new CommandeDTOCompactSerializer())
+            .addSerializer(new IdempotentResultCompactSerializer());
+    }
+
     private MapConfig initializeDefaultMapConfig(JHipsterProperties jHipsterProperties) {
         MapConfig mapConfig = new MapConfig("default");
 
@@ -141,11 +282,61 @@ public class CacheConfiguration {
     }
 
     private MapConfig initializeDomainMapConfig(JHipsterProperties jHipsterProperties) {
-        MapConfig mapConfig = new MapConfig("com.sonatel.domain.*");
+        MapConfig mapConfig = new MapConfig(DOMAIN_MAPS);
         mapConfig.setTimeToLiveSeconds(jHipsterProperties.getCache().getHazelcast().getTimeToLiveSeconds());
         return mapConfig;
     }
 
+    private Optional<NearCacheConfig> initializeNearCacheConfig(ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache.NearCache nearCache = applicationProperties.getCache().getNearCache();
+        if (!nearCache.isEnabled()) {
+            return Optional.empty();
+        }
+        /*
+        Keeps the entries this node reads from the members owning them, so
+        warm second-level cache hits stay off the network: all of them on a
+        client, those of the other members on a member of a cluster (local
+        entries are not near cached).
+        */
+        NearCacheConfig nearCacheConfig = new NearCacheConfig(DOMAIN_MAPS)
+            .setInMemoryFormat(nearCache.getInMemoryFormat())
+            .setInvalidateOnChange(nearCache.isInvalidateOnChange())
+            .setTimeToLiveSeconds(nearCache.getTimeToLiveSeconds());
+        nearCacheConfig
+            .getEvictionConfig()
+            .setEvictionPolicy(nearCache.getEvictionPolicy())
+            .setMaxSizePolicy(MaxSizePolicy.ENTRY_COUNT)
+            .setSize(nearCache.getMaxSize());
+        return Optional.of(nearCacheConfig);
+    }
+
+    private List<MapConfig> initializeCacheMapConfigs(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        return List.of(
+            initializeIdempotencyMapConfig(jHipsterProperties, applicationProperties),
+            initializeSpringCacheMapConfig(CacheNames.MISSING_COMMANDES, applicationProperties),
+            initializeSpringCacheMapConfig(CacheNames.COMMANDE_JSON, applicationProperties)
+        );
+    }
+
+    private MapConfig initializeIdempotencyMapConfig(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        MapConfig mapConfig = new MapConfig(CacheNames.IDEMPOTENCY_KEYS);
+        mapConfig.setBackupCount(jHipsterProperties.getCache().getHazelcast().getBackupCount());
+        mapConfig.setTimeToLiveSeconds(applicationProperties.getIdempotency().getTimeToLiveSeconds());
+        return mapConfig;
+    }
+
+    /**
+     * Entries of the given Spring cache expire in Hazelcast as in the L1 tier. Losing them only costs a query, so they
+     * have no backup.
+     */
+    private MapConfig initializeSpringCacheMapConfig(String name, ApplicationProperties applicationProperties) {
+        ApplicationProperties.Cache cache = applicationProperties.getCache();
+        MapConfig mapConfig = new MapConfig(name);
+        mapConfig.setBackupCount(0);
+        mapConfig.setTimeToLiveSeconds(cache.getRegions().getOrDefault(name, cache.getL1()).getTimeToLiveSeconds());
+        return mapConfig;
+    }
+
     @Autowired(required = false)
     public void setGitProperties(GitProperties gitProperties) {
         this.gitProperties = gitProperties;
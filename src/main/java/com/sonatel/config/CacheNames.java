@@ -0,0 +1,24 @@
+package com.sonatel.config;
+
+/**
+ * Names of the application caches and Hazelcast maps, configured by {@link CacheConfiguration}.
+ */
+public final class CacheNames {
+
+    /**
+     * Cache of the ids and referentiels known not to exist.
+     */
+    public static final String MISSING_COMMANDES = "commande-misses";
+
+    /**
+     * Cache of the JSON responses of a commande, by commande id and version.
+     */
+    public static final String COMMANDE_JSON = "commande-json";
+
+    /**
+     * Hazelcast map of the results of idempotent requests.
+     */
+    public static final String IDEMPOTENCY_KEYS = "idempotency-keys";
+
+    private CacheNames() {}
+}
@@ -0,0 +1,26 @@
+package com.sonatel.config;
+
+import com.sonatel.service.CacheWarmUpService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports DOWN until the startup cache warm-up is over; part of the readiness group, so a new node receives traffic
+ * only once its cache is warm.
+ */
+@Component
+public class CacheWarmUpHealthIndicator implements HealthIndicator {
+
+    private final CacheWarmUpService cacheWarmUpService;
+
+    public CacheWarmUpHealthIndicator(CacheWarmUpService cacheWarmUpService) {
+        this.cacheWarmUpService = cacheWarmUpService;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmUpService.isDone() ? Health.up() : Health.down();
+        return builder.withDetail("loaded", cacheWarmUpService.getLoaded()).build();
+    }
+}
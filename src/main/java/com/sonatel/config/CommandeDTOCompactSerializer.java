@@ -0,0 +1,53 @@
+package com.sonatel.config;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import com.sonatel.service.dto.CommandeDTO;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact (schema-based) Hazelcast serializer of {@link CommandeDTO}.
+ * <p>
+ * Field names are written once per schema instead of with every value, which makes the cached form several times
+ * smaller and faster to read than Java serialization.
+ */
+public class CommandeDTOCompactSerializer implements CompactSerializer<CommandeDTO> {
+
+    public static final String TYPE_NAME = "commande";
+
+    @Override
+    public CommandeDTO read(CompactReader reader) {
+        CommandeDTO commandeDTO = new CommandeDTO();
+        commandeDTO.setId(reader.readNullableInt64("id"));
+        commandeDTO.setReferentiel(reader.readString("referentiel"));
+        commandeDTO.setUserId(reader.readString("userId"));
+        OffsetDateTime dateCommande = reader.readTimestampWithTimezone("dateCommande");
+        commandeDTO.setDateCommande(dateCommande != null ? dateCommande.toInstant() : null);
+        commandeDTO.setVersion(reader.readNullableInt64("version"));
+        return commandeDTO;
+    }
+
+    @Override
+    public void write(CompactWriter writer, CommandeDTO commandeDTO) {
+        writer.writeNullableInt64("id", commandeDTO.getId());
+        writer.writeString("referentiel", commandeDTO.getReferentiel());
+        writer.writeString("userId", commandeDTO.getUserId());
+        writer.writeTimestampWithTimezone(
+            "dateCommande",
+            commandeDTO.getDateCommande() != null ? commandeDTO.getDateCommande().atOffset(ZoneOffset.UTC) : null
+        );
+        writer.writeNullableInt64("version", commandeDTO.getVersion());
+    }
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public Class<CommandeDTO> getCompactClass() {
+        return CommandeDTO.class;
+    }
+}
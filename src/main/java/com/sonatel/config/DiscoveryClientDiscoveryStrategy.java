@@ -0,0 +1,112 @@
+package com.sonatel.config;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.properties.PropertyDefinition;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.discovery.AbstractDiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import com.hazelcast.spi.discovery.DiscoveryStrategy;
+import com.hazelcast.spi.discovery.DiscoveryStrategyFactory;
+import com.hazelcast.spi.discovery.SimpleDiscoveryNode;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+/**
+ * Hazelcast discovery backed by the Spring Cloud {@link DiscoveryClient}: the members are the registered instances of
+ * the service, looked up again every time Hazelcast discovers nodes.
+ * <p>
+ * Hazelcast does so when joining, and then periodically to look for other clusters to merge with. Nodes registered
+ * later are found that way, and clusters formed while the registry was incomplete merge.
+ */
+class DiscoveryClientDiscoveryStrategy extends AbstractDiscoveryStrategy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiscoveryClientDiscoveryStrategy.class);
+
+    private final DiscoveryClient discoveryClient;
+
+    private final String serviceId;
+
+    private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+    DiscoveryClientDiscoveryStrategy(
+        DiscoveryClient discoveryClient,
+        String serviceId,
+        Function<ServiceInstance, InetSocketAddress> memberAddress,
+        ILogger logger,
+        Map<String, Comparable> properties
+    ) {
+        super(logger, properties);
+        this.discoveryClient = discoveryClient;
+        this.serviceId = serviceId;
+        this.memberAddress = memberAddress;
+    }
+
+    @Override
+    public Iterable<DiscoveryNode> discoverNodes() {
+        List<ServiceInstance> instances;
+        try {
+            instances = discoveryClient.getInstances(serviceId);
+        } catch (RuntimeException e) {
+            // Try again on the next discovery; meanwhile the current members stay together
+            LOG.warn("Could not get the instances of {} from the discovery service: {}", serviceId, e.getMessage());
+            return List.of();
+        }
+        List<DiscoveryNode> nodes = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InetSocketAddress address = memberAddress.apply(instance);
+            if (address.isUnresolved()) {
+                LOG.warn("Skipping Hazelcast member {} of instance {}: unknown host", address, instance.getInstanceId());
+                continue;
+            }
+            nodes.add(new SimpleDiscoveryNode(new Address(address)));
+        }
+        LOG.debug("Discovered Hazelcast members {}", nodes);
+        return nodes;
+    }
+
+    /**
+     * Creates the strategy around the given {@link DiscoveryClient}, which Hazelcast cannot instantiate itself.
+     */
+    static class Factory implements DiscoveryStrategyFactory {
+
+        private final DiscoveryClient discoveryClient;
+
+        private final String serviceId;
+
+        private final Function<ServiceInstance, InetSocketAddress> memberAddress;
+
+        /**
+         * @param discoveryClient the registry of the service instances.
+         * @param serviceId the service whose instances are the members.
+         * @param memberAddress the Hazelcast address of the member of an instance.
+         */
+        Factory(DiscoveryClient discoveryClient, String serviceId, Function<ServiceInstance, InetSocketAddress> memberAddress) {
+            this.discoveryClient = discoveryClient;
+            this.serviceId = serviceId;
+            this.memberAddress = memberAddress;
+        }
+
+        @Override
+        public Class<? extends DiscoveryStrategy> getDiscoveryStrategyType() {
+            return DiscoveryClientDiscoveryStrategy.class;
+        }
+
+        @Override
+        public DiscoveryStrategy newDiscoveryStrategy(DiscoveryNode discoveryNode, ILogger logger, Map<String, Comparable> properties) {
+            return new DiscoveryClientDiscoveryStrategy(discoveryClient, serviceId, memberAddress, logger, properties);
+        }
+
+        @Override
+        public Collection<PropertyDefinition> getConfigurationProperties() {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.sonatel.config;
+
+import com.hazelcast.nio.serialization.compact.CompactReader;
+import com.hazelcast.nio.serialization.compact.CompactSerializer;
+import com.hazelcast.nio.serialization.compact.CompactWriter;
+import com.sonatel.service.IdempotencyService.IdempotentResult;
+
+/**
+ * Compact (schema-based) Hazelcast serializer of {@link IdempotentResult}; the stored result is written as a nested
+ * Compact value, see {@link CommandeDTOCompactSerializer}.
+ */
+public class IdempotentResultCompactSerializer implements CompactSerializer<IdempotentResult> {
+
+    public static final String TYPE_NAME = "idempotent-result";
+
+    @Override
+    public IdempotentResult read(CompactReader reader) {
+        return new IdempotentResult(reader.readString("fingerprint"), reader.readCompact("result"));
+    }
+
+    @Override
+    public void write(CompactWriter writer, IdempotentResult idempotentResult) {
+        writer.writeString("fingerprint", idempotentResult.fingerprint());
+        writer.writeCompact("result", idempotentResult.result());
+    }
+
+    @Override
+    public String getTypeName() {
+        return TYPE_NAME;
+    }
+
+    @Override
+    public Class<IdempotentResult> getCompactClass() {
+        return IdempotentResult.class;
+    }
+}
@@ -0,0 +1,71 @@
+package com.sonatel.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Read-only transactions go to the MySQL replicas of {@code application.replication.replicas}, everything else to the
+ * {@code spring.datasource} primary. Each target has its own Hikari pool; the replica pools copy the settings of the
+ * primary one.
+ * <p>
+ * The routing relies on {@link LazyConnectionDataSourceProxy}: the transaction manager marks the connection read-only
+ * before its first statement, and only then is the physical connection taken from the replicas or the primary.
+ * <p>
+ * Whatever a replica returns may lag behind the primary, so it must not reach the caches shared by the cluster: the
+ * reads of entities, which fill the second-level cache and the caches built from it, run in read-write transactions
+ * on the primary. Read-only transactions, and so the replicas, are left to the projections of the lists, the history,
+ * the export and the statistics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.replication", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+        HikariDataSource primaryDataSource,
+        DataSourceProperties dataSourceProperties,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Replication replication = applicationProperties.getReplication();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ApplicationProperties.Replication.Replica> replicaProperties = replication.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            ApplicationProperties.Replication.Replica replica = replicaProperties.get(i);
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName(primaryDataSource.getPoolName() + "-replica-" + i);
+            config.setJdbcUrl(replica.getUrl());
+            config.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+            config.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+            config.setReadOnly(true);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, Duration.ofSeconds(replication.getMaxLagSeconds()));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,163 @@
+package com.sonatel.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Hands out connections to the MySQL replicas in turn, skipping the ones that are down or too far behind their source,
+ * and to the primary when no replica is usable.
+ * <p>
+ * Replicas are checked every {@code application.replication.check-interval-seconds} with {@code SHOW REPLICA STATUS},
+ * which needs the {@code REPLICATION CLIENT} privilege. A replica is usable when its replication threads run and
+ * {@code Seconds_Behind_Source} is within the tolerated lag; until its first check, it is not.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long maxLagSeconds;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * @param primary the datasource used when no replica is usable.
+     * @param replicas the replica datasources, by name.
+     * @param maxLag the replication lag tolerated.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.maxLagSeconds = maxLag.toSeconds();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    /**
+     * Same routing as {@link #getConnection()}. Hikari pools do not take other credentials than their own and throw
+     * {@link SQLFeatureNotSupportedException}, which is passed on without marking the replica unusable.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection getConnection(Connector connector) throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.usable) {
+                try {
+                    return connector.connect(replica.dataSource);
+                } catch (SQLFeatureNotSupportedException e) {
+                    throw e;
+                } catch (SQLException e) {
+                    LOG.warn("Replica {} is unreachable, skipping it until its next check: {}", replica.name, e.getMessage());
+                    replica.usable = false;
+                }
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    /**
+     * Check the replication lag of every replica.
+     */
+    @Scheduled(fixedDelayString = "${application.replication.check-interval-seconds:5}", timeUnit = TimeUnit.SECONDS)
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean usable;
+            try {
+                Long lag = lagSeconds(replica.dataSource);
+                usable = lag != null && lag <= maxLagSeconds;
+                if (!usable && replica.usable) {
+                    String state = lag == null ? "not replicating" : lag + "s behind";
+                    LOG.warn("Replica {} is {}, reading from the primary instead", replica.name, state);
+                }
+            } catch (SQLException e) {
+                usable = false;
+                if (replica.usable) {
+                    LOG.warn("Replica {} is unreachable, reading from the primary instead: {}", replica.name, e.getMessage());
+                }
+            }
+            if (usable && !replica.usable) {
+                LOG.info("Replica {} is up to date, reading from it", replica.name);
+            }
+            replica.usable = usable;
+        }
+    }
+
+    /**
+     * @return the replication lag in seconds, or {@code null} if the server does not replicate.
+     */
+    private static Long lagSeconds(DataSource dataSource) throws SQLException {
+        try (
+            Connection connection = dataSource.getConnection();
+            Statement statement = connection.createStatement();
+            ResultSet resultSet = statement.executeQuery("show replica status")
+        ) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            // Null while the replication threads are stopped
+            long lag = resultSet.getLong("Seconds_Behind_Source");
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    /**
+     * @return the names of the replicas reads currently go to.
+     */
+    public List<String> getUsableReplicas() {
+        return replicas.stream().filter(replica -> replica.usable).map(replica -> replica.name).toList();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean usable;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
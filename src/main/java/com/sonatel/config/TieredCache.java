@@ -0,0 +1,149 @@
+package com.sonatel.config;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A {@link Cache} reading a per-node Caffeine cache (L1) before the shared Hazelcast one (L2).
+ * <p>
+ * Writes go to both tiers. The L1 entries of other nodes are invalidated by the Hazelcast map events of the L2, see
+ * {@link TieredCacheManager}; until the event arrives, a node may serve the previous value.
+ * <p>
+ * Every write and invalidation bumps a sequence first. A value read from the L2 is only copied to the L1 if the sequence
+ * has not moved since the read started, so a read racing with a change cannot put the previous value back in the L1.
+ */
+public class TieredCache implements Cache {
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> l1;
+
+    private final Cache l2;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TieredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> l1, Cache l2) {
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<Object, ValueWrapper> getL1() {
+        return l1;
+    }
+
+    public Cache getL2() {
+        return l2;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper value = l1.getIfPresent(key);
+        if (value == null) {
+            long invalidation = invalidations.get();
+            value = l2.get(key);
+            if (value != null) {
+                fillL1(key, value, invalidation);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object result = value != null ? value.get() : null;
+        if (result != null && type != null && !type.isInstance(result)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + result);
+        }
+        return (T) result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper value = l1.getIfPresent(key);
+        if (value == null) {
+            long invalidation = invalidations.get();
+            T result = l2.get(key, valueLoader);
+            fillL1(key, new SimpleValueWrapper(result), invalidation);
+            return result;
+        }
+        return (T) value.get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        invalidations.incrementAndGet();
+        l2.put(key, value);
+        l1.put(key, new SimpleValueWrapper(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        invalidations.incrementAndGet();
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        l1.put(key, existing != null ? existing : new SimpleValueWrapper(value));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        invalidateL1(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = l2.evictIfPresent(key);
+        invalidateL1(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        invalidateL1();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = l2.invalidate();
+        invalidateL1();
+        return invalidated;
+    }
+
+    /**
+     * Drop the L1 entry of a key changed in the L2.
+     */
+    public void invalidateL1(Object key) {
+        invalidations.incrementAndGet();
+        l1.invalidate(key);
+    }
+
+    /**
+     * Drop every L1 entry, the L2 having been cleared.
+     */
+    public void invalidateL1() {
+        invalidations.incrementAndGet();
+        l1.invalidateAll();
+    }
+
+    private void fillL1(Object key, ValueWrapper value, long invalidation) {
+        // Checked under the lock of the entry: a write or invalidation bumps the sequence before touching the L1
+        l1.asMap().compute(key, (k, current) -> invalidations.get() == invalidation ? value : current);
+    }
+}
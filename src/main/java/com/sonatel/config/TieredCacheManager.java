@@ -0,0 +1,156 @@
+package com.sonatel.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.client.impl.proxy.ClientMapProxy;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.EntryEvent;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.MapEvent;
+import com.hazelcast.map.listener.EntryAddedListener;
+import com.hazelcast.map.listener.EntryEvictedListener;
+import com.hazelcast.map.listener.EntryExpiredListener;
+import com.hazelcast.map.listener.EntryRemovedListener;
+import com.hazelcast.map.listener.EntryUpdatedListener;
+import com.hazelcast.map.listener.MapClearedListener;
+import com.hazelcast.map.listener.MapEvictedListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.cache.HazelcastCacheMetrics;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * {@link CacheManager} of {@link TieredCache}s: a bounded Caffeine cache per node in front of each map of the
+ * {@code l2} Hazelcast cache manager.
+ * <p>
+ * Every change of a Hazelcast map, made by another node or by its own expiry and eviction, invalidates the matching L1
+ * entry on all nodes through a map listener. Additions and updates made by this member are skipped, as its L1 already
+ * holds the value written; a Hazelcast client cannot tell its own writes apart, so its L1 is invalidated by them too.
+ * Both tiers are exported as {@code cache.*} meters, tagged {@code tier=l1} or {@code tier=l2}.
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final CacheManager l2;
+
+    private final ApplicationProperties.Cache properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Member localMember;
+
+    private final ConcurrentMap<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager l2, ApplicationProperties.Cache properties, MeterRegistry meterRegistry) {
+        this(l2, properties, meterRegistry, null);
+    }
+
+    /**
+     * @param localMember the Hazelcast member of this node, or {@code null} if it is a client.
+     */
+    public TieredCacheManager(CacheManager l2, ApplicationProperties.Cache properties, MeterRegistry meterRegistry, Member localMember) {
+        this.l2 = l2;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.localMember = localMember;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TieredCache createCache(String name) {
+        ApplicationProperties.Cache.L1 l1Properties = properties.getRegions().getOrDefault(name, properties.getL1());
+        com.github.benmanes.caffeine.cache.Cache<Object, Cache.ValueWrapper> l1 = Caffeine.newBuilder()
+            .maximumSize(l1Properties.getMaximumSize())
+            .expireAfterWrite(Duration.ofSeconds(l1Properties.getTimeToLiveSeconds()))
+            .recordStats()
+            .build();
+        Cache l2Cache = l2.getCache(name);
+        CaffeineCacheMetrics.monitor(meterRegistry, l1, name, "tier", "l1");
+        TieredCache cache = new TieredCache(name, l1, l2Cache);
+        if (l2Cache.getNativeCache() instanceof IMap<?, ?> map) {
+            map.addEntryListener(new L1InvalidationListener(cache, localMember), false);
+            // Map statistics are only kept by cluster members, not by clients
+            if (!(map instanceof ClientMapProxy)) {
+                HazelcastCacheMetrics.monitor(meterRegistry, map, "tier", "l2");
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drops the L1 entries of the keys changed in the Hazelcast map, except those added or updated by the local member.
+     */
+    static class L1InvalidationListener
+        implements
+            EntryAddedListener<Object, Object>,
+            EntryUpdatedListener<Object, Object>,
+            EntryRemovedListener<Object, Object>,
+            EntryEvictedListener<Object, Object>,
+            EntryExpiredListener<Object, Object>,
+            MapClearedListener,
+            MapEvictedListener {
+
+        private final TieredCache cache;
+
+        private final Member localMember;
+
+        L1InvalidationListener(TieredCache cache, Member localMember) {
+            this.cache = cache;
+            this.localMember = localMember;
+        }
+
+        @Override
+        public void entryAdded(EntryEvent<Object, Object> event) {
+            invalidateUnlessLocal(event);
+        }
+
+        @Override
+        public void entryUpdated(EntryEvent<Object, Object> event) {
+            invalidateUnlessLocal(event);
+        }
+
+        private void invalidateUnlessLocal(EntryEvent<Object, Object> event) {
+            // The local write put its value in the L1 already; dropping it would only cost the next read a miss
+            if (localMember == null || !localMember.equals(event.getMember())) {
+                cache.invalidateL1(event.getKey());
+            }
+        }
+
+        @Override
+        public void entryRemoved(EntryEvent<Object, Object> event) {
+            cache.invalidateL1(event.getKey());
+        }
+
+        @Override
+        public void entryEvicted(EntryEvent<Object, Object> event) {
+            cache.invalidateL1(event.getKey());
+        }
+
+        @Override
+        public void entryExpired(EntryEvent<Object, Object> event) {
+            cache.invalidateL1(event.getKey());
+        }
+
+        @Override
+        public void mapCleared(MapEvent event) {
+            cache.invalidateL1();
+        }
+
+        @Override
+        public void mapEvicted(MapEvent event) {
+            cache.invalidateL1();
+        }
+    }
+}
@@ -8,25 +8,48 @@ import java.io.Serializable;
 import java.time.Instant;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLSelect;
+import org.hibernate.jdbc.Expectation;
 
 /**
  * A Commande.
+ * <p>
+ * {@code commande} is partitioned by month of {@code date_commande}. Loads and deletes by id find the date of the
+ * commande in {@code commande_referentiel} first, so they read the one partition holding it.
  */
 @Entity
 @Table(name = "commande")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@SQLSelect(
+    sql = "select commande.id, commande.referentiel, commande.user_id, commande.date_commande, commande.version" +
+    " from commande_referentiel join commande" +
+    " on commande.id = commande_referentiel.commande_id and commande.date_commande = commande_referentiel.date_commande" +
+    " where commande_referentiel.commande_id = ?",
+    querySpaces = { "commande", "commande_referentiel" }
+)
+@SQLDelete(sql = "{call delete_commande(?, ?, ?)}", callable = true, verify = Expectation.OutParameter.class)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Commande implements Serializable {
 
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Allocated in blocks of 50 from the {@code commande_sequence} table (MySQL has no native sequence), so inserts
+     * need no generated-key round-trip and can be JDBC-batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "commandeSequenceGenerator")
+    @SequenceGenerator(name = "commandeSequenceGenerator", sequenceName = "commande_sequence", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
     @NotNull
+    @NaturalId(mutable = true)
     @Column(name = "referentiel", nullable = false, unique = true)
     private String referentiel;
 
@@ -38,6 +61,13 @@ public class Commande implements Serializable {
     @Column(name = "date_commande", nullable = false)
     private Instant dateCommande;
 
+    /**
+     * Optimistic lock, also lets an update detect a missing or stale row from its affected-row count alone.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -92,6 +122,19 @@ public class Commande implements Serializable {
         this.dateCommande = dateCommande;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Commande version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -119,6 +162,7 @@ public class Commande implements Serializable {
             ", referentiel='" + getReferentiel() + "'" +
             ", userId='" + getUserId() + "'" +
             ", dateCommande='" + getDateCommande() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
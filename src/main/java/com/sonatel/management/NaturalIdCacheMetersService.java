@@ -0,0 +1,98 @@
+package com.sonatel.management;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exposes the hits, misses and puts of the natural-id cache of every entity that has one, read from the local
+ * statistics of the Hazelcast map backing its region, which are kept whatever {@code hibernate.generate_statistics}.
+ * <p>
+ * Reads served by the near cache never reach the map, so they are added to its hits and gets. A hit is counted by the
+ * member owning the entry and a get by the member issuing it: on a single member, or summed over the cluster, the
+ * meters count the lookups; the ratio of one member of a cluster is an approximation. An entry locked by a concurrent
+ * write counts as a hit, although Hibernate then reads the database.
+ */
+@Service
+public class NaturalIdCacheMetersService {
+
+    public static final String GETS_METER_NAME = "cache.natural-id.gets";
+    public static final String PUTS_METER_NAME = "cache.natural-id.puts";
+    public static final String HIT_RATIO_METER_NAME = "cache.natural-id.hit.ratio";
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public NaturalIdCacheMetersService(
+        MeterRegistry registry,
+        HazelcastInstance hazelcastInstance,
+        EntityManagerFactory entityManagerFactory
+    ) {
+        this.hazelcastInstance = hazelcastInstance;
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getMappingMetamodel()
+            .forEachEntityDescriptor(persister -> {
+                NaturalIdDataAccess naturalIdCache = persister.getNaturalIdCacheAccessStrategy();
+                if (naturalIdCache != null) {
+                    bindNaturalIdCache(registry, persister.getEntityName(), naturalIdCache.getRegion().getName());
+                }
+            });
+    }
+
+    private void bindNaturalIdCache(MeterRegistry registry, String entityName, String regionName) {
+        FunctionCounter.builder(GETS_METER_NAME, this, service -> service.mapStats(regionName).hits())
+            .description("Natural-id lookups resolved from the cache")
+            .tag(CACHE_DIMENSION, entityName)
+            .tag(RESULT_DIMENSION, "hit")
+            .register(registry);
+        FunctionCounter.builder(GETS_METER_NAME, this, service -> service.mapStats(regionName).misses())
+            .description("Natural-id lookups that missed the cache")
+            .tag(CACHE_DIMENSION, entityName)
+            .tag(RESULT_DIMENSION, "miss")
+            .register(registry);
+        FunctionCounter.builder(PUTS_METER_NAME, this, service -> service.mapStats(regionName).puts())
+            .description("Natural-id resolutions put in the cache")
+            .tag(CACHE_DIMENSION, entityName)
+            .register(registry);
+        Gauge.builder(HIT_RATIO_METER_NAME, this, service -> service.mapStats(regionName).hitRatio())
+            .description("Ratio of natural-id lookups resolved from the cache, 0 until the first lookup")
+            .tag(CACHE_DIMENSION, entityName)
+            .register(registry);
+    }
+
+    private RegionStats mapStats(String regionName) {
+        LocalMapStats localMapStats;
+        try {
+            localMapStats = hazelcastInstance.getMap(regionName).getLocalMapStats();
+        } catch (UnsupportedOperationException e) {
+            // A Hazelcast client only has statistics for its near-cached maps
+            return new RegionStats(0, 0, 0);
+        }
+        NearCacheStats nearCacheStats = localMapStats.getNearCacheStats();
+        long nearCacheHits = nearCacheStats == null ? 0 : nearCacheStats.getHits();
+        return new RegionStats(
+            localMapStats.getHits() + nearCacheHits,
+            localMapStats.getGetOperationCount() + nearCacheHits,
+            localMapStats.getPutOperationCount()
+        );
+    }
+
+    private record RegionStats(long hits, long gets, long puts) {
+        long misses() {
+            return Math.max(0, gets - hits);
+        }
+
+        double hitRatio() {
+            return gets == 0 ? 0 : Math.min(1, (double) hits / gets);
+        }
+    }
+}
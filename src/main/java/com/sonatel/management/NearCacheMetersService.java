@@ -0,0 +1,76 @@
+package com.sonatel.management;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.ToLongFunction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Exposes the hits, misses, invalidations, evictions and size of the Hazelcast near cache of every Hibernate
+ * second-level cache region, read from the local statistics of the region's map. Regions without a near cache report
+ * zeros.
+ */
+@Service
+public class NearCacheMetersService {
+
+    public static final String GETS_METER_NAME = "cache.near.gets";
+    public static final String INVALIDATIONS_METER_NAME = "cache.near.invalidations";
+    public static final String EVICTIONS_METER_NAME = "cache.near.evictions";
+    public static final String SIZE_METER_NAME = "cache.near.size";
+    public static final String CACHE_DIMENSION = "cache";
+    public static final String RESULT_DIMENSION = "result";
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public NearCacheMetersService(MeterRegistry registry, HazelcastInstance hazelcastInstance, EntityManagerFactory entityManagerFactory) {
+        this.hazelcastInstance = hazelcastInstance;
+        for (String regionName : entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getCacheRegionNames()) {
+            bindNearCache(registry, regionName);
+        }
+    }
+
+    private void bindNearCache(MeterRegistry registry, String regionName) {
+        FunctionCounter.builder(GETS_METER_NAME, this, service -> service.nearCacheStat(regionName, NearCacheStats::getHits))
+            .description("Second-level cache reads served by the near cache")
+            .tag(CACHE_DIMENSION, regionName)
+            .tag(RESULT_DIMENSION, "hit")
+            .register(registry);
+        FunctionCounter.builder(GETS_METER_NAME, this, service -> service.nearCacheStat(regionName, NearCacheStats::getMisses))
+            .description("Second-level cache reads that missed the near cache")
+            .tag(CACHE_DIMENSION, regionName)
+            .tag(RESULT_DIMENSION, "miss")
+            .register(registry);
+        FunctionCounter.builder(
+            INVALIDATIONS_METER_NAME,
+            this,
+            service -> service.nearCacheStat(regionName, NearCacheStats::getInvalidations)
+        )
+            .description("Near cache entries invalidated by a change on their owner member")
+            .tag(CACHE_DIMENSION, regionName)
+            .register(registry);
+        FunctionCounter.builder(EVICTIONS_METER_NAME, this, service -> service.nearCacheStat(regionName, NearCacheStats::getEvictions))
+            .description("Near cache entries evicted to respect its maximum size")
+            .tag(CACHE_DIMENSION, regionName)
+            .register(registry);
+        Gauge.builder(SIZE_METER_NAME, this, service -> service.nearCacheStat(regionName, NearCacheStats::getOwnedEntryCount))
+            .description("Entries held by the near cache")
+            .tag(CACHE_DIMENSION, regionName)
+            .register(registry);
+    }
+
+    private long nearCacheStat(String regionName, ToLongFunction<NearCacheStats> stat) {
+        NearCacheStats nearCacheStats;
+        try {
+            nearCacheStats = hazelcastInstance.getMap(regionName).getLocalMapStats().getNearCacheStats();
+        } catch (UnsupportedOperationException e) {
+            // A Hazelcast client only has statistics for its near-cached maps
+            return 0;
+        }
+        return nearCacheStats == null ? 0 : stat.applyAsLong(nearCacheStats);
+    }
+}
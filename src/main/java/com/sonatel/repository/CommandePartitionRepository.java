@@ -0,0 +1,154 @@
+package com.sonatel.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository of the monthly RANGE partitions of the {@code commande} table.
+ * <p>
+ * Partition {@code pYYYYMM} holds the commandes up to the end of month {@code YYYY-MM}, {@code pmax} the ones after
+ * the last month. Partition and table names are built from {@link YearMonth}s only, never from input.
+ * <p>
+ * Statements changing the rows of {@code commande} are declared on its query space, so that Hibernate evicts its
+ * second-level cache regions; partition operations do not fire the triggers, so the {@code commande_referentiel} rows
+ * of the commandes gone with a partition are released afterwards.
+ */
+@Repository
+public class CommandePartitionRepository {
+
+    public static final String MAX_PARTITION = "pmax";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public static String partitionName(YearMonth month) {
+        return String.format("p%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    public static String archiveTableName(YearMonth month) {
+        return String.format("commande_archive_%04d%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * The partitions of {@code commande}, in order, none if the table is not partitioned.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findPartitionNames() {
+        return entityManager
+            .createNativeQuery(
+                "select partition_name from information_schema.partitions" +
+                " where table_schema = database() and table_name = 'commande' and partition_name is not null" +
+                " order by partition_ordinal_position"
+            )
+            .getResultList();
+    }
+
+    public boolean tableExists(String table) {
+        return !entityManager
+            .createNativeQuery("select 1 from information_schema.tables where table_schema = database() and table_name = ?1")
+            .setParameter(1, table)
+            .getResultList()
+            .isEmpty();
+    }
+
+    /**
+     * Split the given months, following the last monthly partition, out of {@link #MAX_PARTITION}.
+     */
+    public void addPartitions(List<YearMonth> months) {
+        String partitions = months
+            .stream()
+            .map(month -> "partition " + partitionName(month) + " values less than ('" + month.plusMonths(1).atDay(1) + " 00:00:00')")
+            .collect(Collectors.joining(", "));
+        execute(
+            "alter table commande reorganize partition " +
+            MAX_PARTITION +
+            " into (" +
+            partitions +
+            ", partition " +
+            MAX_PARTITION +
+            " values less than (maxvalue))"
+        );
+    }
+
+    /**
+     * Free up to {@code limit} of the referentiels and ids, following {@code after}, of the commandes dated before
+     * {@code before} that left the table with their partition.
+     * <p>
+     * The candidates are read in {@code (date_commande, commande_id)} order from a plain consistent read, which locks
+     * nothing, and the next call continues after the last one, so each row is scanned once. Each one is deleted only if
+     * its commande is still missing then, so the guard row of a commande inserted meanwhile is kept.
+     *
+     * @param before the end of the expired month, exclusive.
+     * @param after the last candidate of the previous call, or {@code null} to start from the oldest.
+     * @param limit the maximum number of candidates.
+     * @return the last candidate, to continue from, or empty once none is left.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<OrphanKey> releaseOrphanReferentiels(Instant before, OrphanKey after, int limit) {
+        NativeQuery<Object[]> query = entityManager
+            .createNativeQuery(
+                "select commande_id, date_commande from commande_referentiel where date_commande < :before" +
+                (after != null ? " and (date_commande > :afterDate or (date_commande = :afterDate and commande_id > :afterId))" : "") +
+                " order by date_commande, commande_id limit :limit"
+            )
+            .unwrap(NativeQuery.class)
+            .addScalar("commande_id", StandardBasicTypes.LONG)
+            .addScalar("date_commande", StandardBasicTypes.INSTANT)
+            .setParameter("before", before)
+            .setParameter("limit", limit);
+        if (after != null) {
+            query.setParameter("afterDate", after.dateCommande()).setParameter("afterId", after.id());
+        }
+        List<Object[]> candidates = query.getResultList();
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        entityManager
+            .createNativeQuery(
+                "delete from commande_referentiel where commande_id in (:ids) and not exists (select 1 from commande" +
+                " where commande.id = commande_referentiel.commande_id and commande.date_commande = commande_referentiel.date_commande)"
+            )
+            .unwrap(NativeQuery.class)
+            // No entity is mapped on commande_referentiel, so no second-level cache region is evicted
+            .addSynchronizedQuerySpace("commande_referentiel")
+            .setParameter("ids", candidates.stream().map(candidate -> candidate[0]).toList())
+            .executeUpdate();
+        if (candidates.size() < limit) {
+            return Optional.empty();
+        }
+        Object[] last = candidates.get(candidates.size() - 1);
+        return Optional.of(new OrphanKey((Instant) last[1], (Long) last[0]));
+    }
+
+    /**
+     * Position of the release of orphan referentiels.
+     */
+    public record OrphanKey(Instant dateCommande, Long id) {}
+
+    /**
+     * Move the commandes of a month to a new table of the same structure, leaving their partition empty.
+     */
+    public void archivePartition(YearMonth month) {
+        String archive = archiveTableName(month);
+        execute("create table " + archive + " like commande");
+        execute("alter table " + archive + " remove partitioning");
+        // The new table is empty, there are no rows to check against the partition
+        execute("alter table commande exchange partition " + partitionName(month) + " with table " + archive + " without validation");
+    }
+
+    public void dropPartition(YearMonth month) {
+        execute("alter table commande drop partition " + partitionName(month));
+    }
+
+    private void execute(String sql) {
+        entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace("commande").executeUpdate();
+    }
+}
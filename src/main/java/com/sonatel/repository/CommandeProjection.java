@@ -0,0 +1,10 @@
+package com.sonatel.repository;
+
+import java.time.Instant;
+
+/**
+ * Read-only view of a {@link com.sonatel.domain.Commande} row, built by JPQL constructor expressions.
+ * <p>
+ * Unlike the entity, it is neither managed by the persistence context nor put in the second-level cache.
+ */
+public record CommandeProjection(Long id, String referentiel, String userId, Instant dateCommande, Long version) {}
@@ -1,7 +1,19 @@
 package com.sonatel.repository;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import com.sonatel.domain.Commande;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +21,90 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CommandeRepository extends JpaRepository<Commande, Long> {}
+public interface CommandeRepository
+    extends
+        CommandeRepositoryWithNaturalId,
+        CommandeRepositoryWithCachedVersion,
+        CommandeRepositoryWithMultiLoad,
+        CommandeRepositoryWithProjection,
+        CommandeRepositoryWithUpsert,
+        CommandeRepositoryWithVersionedUpdate,
+        JpaRepository<Commande, Long>,
+        JpaSpecificationExecutor<Commande> {
+    /**
+     * Stream the commandes of {@code [from, to)}, either bound being optional. {@code Integer.MIN_VALUE} makes
+     * MySQL Connector/J stream rows one by one instead of buffering the whole result set. The stream must be
+     * consumed and closed inside a transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query(
+        "select commande from Commande commande" +
+        " where (:from is null or commande.dateCommande >= :from)" +
+        " and (:to is null or commande.dateCommande < :to)" +
+        " order by commande.dateCommande, commande.id"
+    )
+    Stream<Commande> streamAll(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * Same rows as {@link #streamAll}, as {@link CommandeProjection} rather than entities, so nothing accumulates in
+     * the persistence context. The stream must be consumed and closed inside a transaction.
+     */
+    @QueryHints(
+        {
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HINT_CACHEABLE, value = "false"),
+        }
+    )
+    @Query(
+        "select new com.sonatel.repository.CommandeProjection(" +
+        "commande.id, commande.referentiel, commande.userId, commande.dateCommande, commande.version)" +
+        " from Commande commande" +
+        " where (:from is null or commande.dateCommande >= :from)" +
+        " and (:to is null or commande.dateCommande < :to)" +
+        " order by commande.dateCommande, commande.id"
+    )
+    Stream<CommandeProjection> streamProjections(@Param("from") Instant from, @Param("to") Instant to);
+
+    /**
+     * The given referentiels already in use, checked with a single (padded) {@code IN} query.
+     */
+    @Query("select commande.referentiel from Commande commande where commande.referentiel in :referentiels")
+    Set<String> findExistingReferentiels(@Param("referentiels") Collection<String> referentiels);
+
+    /**
+     * First page of the history of a user, ordered by {@code (dateCommande, id)} descending. Read from the
+     * {@code ix_commande__user_id_date_commande_id} covering index.
+     */
+    @Query(
+        "select new com.sonatel.repository.CommandeProjection(" +
+        "commande.id, commande.referentiel, commande.userId, commande.dateCommande, commande.version)" +
+        " from Commande commande where commande.userId = :userId" +
+        " order by commande.dateCommande desc, commande.id desc"
+    )
+    List<CommandeProjection> findHistoryByUserId(@Param("userId") String userId, Limit limit);
+
+    /**
+     * Page of the history of a user following the {@code (dateCommande, id)} keyset position, in the order of
+     * {@link #findHistoryByUserId}.
+     */
+    @Query(
+        "select new com.sonatel.repository.CommandeProjection(" +
+        "commande.id, commande.referentiel, commande.userId, commande.dateCommande, commande.version)" +
+        " from Commande commande where commande.userId = :userId" +
+        " and commande.dateCommande <= :dateCommande" +
+        " and (commande.dateCommande < :dateCommande or commande.id < :id)" +
+        " order by commande.dateCommande desc, commande.id desc"
+    )
+    List<CommandeProjection> findHistoryByUserIdAfter(
+        @Param("userId") String userId,
+        @Param("dateCommande") Instant dateCommande,
+        @Param("id") Long id,
+        Limit limit
+    );
+}
@@ -0,0 +1,18 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import java.util.Optional;
+
+/**
+ * Version of a {@link Commande} read from the second-level cache alone.
+ */
+public interface CommandeRepositoryWithCachedVersion {
+    /**
+     * Get the version of the "id" commande from its second-level cache entry, without a transaction nor assembling the
+     * entity.
+     *
+     * @param id the id of the commande.
+     * @return the cached version, or empty if the commande is not cached.
+     */
+    Optional<Long> findCachedVersion(Long id);
+}
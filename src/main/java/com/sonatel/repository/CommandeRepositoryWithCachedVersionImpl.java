@@ -0,0 +1,44 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import java.util.Optional;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Utility repository to read the version of a {@link Commande} from the entity region.
+ * <p>
+ * The entry is read through the region's access strategy, like a load by id does, so an entry being written is not
+ * returned. Only the version is taken from it: no persistence context, transaction or connection is involved, and the
+ * entity is not assembled. A stateless session is opened for the read, as the region needs one.
+ */
+public class CommandeRepositoryWithCachedVersionImpl implements CommandeRepositoryWithCachedVersion {
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Optional<Long> findCachedVersion(Long id) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Commande.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null) {
+            return Optional.empty();
+        }
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Object cacheKey = cacheAccess.generateCacheKey(id, persister, sessionFactory, null);
+            Object entry = cacheAccess.get((SharedSessionContractImplementor) session, cacheKey);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            CacheEntry cacheEntry = (CacheEntry) persister.getCacheEntryStructure().destructure(entry, sessionFactory);
+            return Optional.ofNullable((Long) cacheEntry.getVersion());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import java.util.List;
+
+/**
+ * Multi-id access to {@link Commande} that goes through the second-level cache before the database.
+ */
+public interface CommandeRepositoryWithMultiLoad {
+    /**
+     * Load the commandes of the given ids, in the order of {@code ids}.
+     *
+     * @param ids the ids to load.
+     * @return one element per id, {@code null} where no commande exists.
+     */
+    List<Commande> findAllByIdInOrder(List<Long> ids);
+}
@@ -0,0 +1,36 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.List;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+/**
+ * Utility repository to load several {@link Commande} by id in one go.
+ * <p>
+ * Ids already held by the persistence context or the second-level cache are resolved there; all the others are
+ * fetched with a single {@code IN} statement.
+ */
+public class CommandeRepositoryWithMultiLoadImpl implements CommandeRepositoryWithMultiLoad {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Commande> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager
+            .unwrap(Session.class)
+            .byMultipleIds(Commande.class)
+            .with(CacheMode.NORMAL)
+            .enableSessionCheck(true)
+            .enableOrderedReturn(true)
+            // One statement for all the cache misses instead of dialect-sized chunks
+            .withBatchSize(ids.size())
+            .multiLoad(ids);
+    }
+}
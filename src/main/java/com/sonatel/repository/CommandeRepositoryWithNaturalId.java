@@ -0,0 +1,11 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import java.util.Optional;
+
+/**
+ * Natural-id access to {@link Commande}, resolved through the Hibernate natural-id cache.
+ */
+public interface CommandeRepositoryWithNaturalId {
+    Optional<Commande> findOneByReferentiel(String referentiel);
+}
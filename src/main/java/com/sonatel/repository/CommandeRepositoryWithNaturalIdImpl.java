@@ -0,0 +1,37 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+import org.hibernate.Session;
+
+/**
+ * Utility repository to load {@link Commande} by its natural id.
+ * <p>
+ * Unlike a derived {@code findByReferentiel} query, {@link Session#bySimpleNaturalId} first resolves the id from the
+ * natural-id cache region, then loads the entity from the entity region, so a warm lookup needs no database round-trip.
+ */
+public class CommandeRepositoryWithNaturalIdImpl implements CommandeRepositoryWithNaturalId {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Commande> findOneByReferentiel(String referentiel) {
+        Session session = entityManager.unwrap(Session.class);
+        Optional<Commande> commande = session
+            .bySimpleNaturalId(Commande.class)
+            // Nothing to flush: callers are read-only, so skip the dirty natural-id check of the persistence context
+            .setSynchronizationEnabled(false)
+            .loadOptional(referentiel);
+        if (commande.isPresent() && !referentiel.equals(commande.orElseThrow().getReferentiel())) {
+            // Cached resolution made stale by an SQL update of the referentiel, see CommandeRepositoryWithVersionedUpdate
+            return session
+                .createSelectionQuery("from Commande where referentiel = :referentiel", Commande.class)
+                .setParameter("referentiel", referentiel)
+                .uniqueResultOptional();
+        }
+        return commande;
+    }
+}
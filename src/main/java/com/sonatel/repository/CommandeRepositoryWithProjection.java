@@ -0,0 +1,21 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Read-only access to {@link Commande} rows as {@link CommandeProjection}, without loading any entity.
+ */
+public interface CommandeRepositoryWithProjection {
+    /**
+     * Find the commandes matching the specification.
+     *
+     * @param specification the filters, may be {@code null}.
+     * @param sort the order of the result.
+     * @param limit the maximum number of rows.
+     * @return the matching rows.
+     */
+    List<CommandeProjection> findProjectedBy(Specification<Commande> specification, Sort sort, int limit);
+}
@@ -0,0 +1,52 @@
+package com.sonatel.repository;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+import com.sonatel.domain.Commande;
+import com.sonatel.domain.Commande_;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.util.List;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Utility repository to run {@link Specification} queries with a constructor expression.
+ * <p>
+ * The rows are mapped straight to {@link CommandeProjection}: nothing is added to the persistence context, and no
+ * dirty-checking snapshot is taken.
+ */
+public class CommandeRepositoryWithProjectionImpl implements CommandeRepositoryWithProjection {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CommandeProjection> findProjectedBy(Specification<Commande> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CommandeProjection> query = builder.createQuery(CommandeProjection.class);
+        Root<Commande> root = query.from(Commande.class);
+        query.select(
+            builder.construct(
+                CommandeProjection.class,
+                root.get(Commande_.id),
+                root.get(Commande_.referentiel),
+                root.get(Commande_.userId),
+                root.get(Commande_.dateCommande),
+                root.get(Commande_.version)
+            )
+        );
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, builder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(toOrders(sort, root, builder));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -0,0 +1,21 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+
+/**
+ * Utility repository to create or update a {@link Commande} by its natural id.
+ */
+public interface CommandeRepositoryWithUpsert {
+    /**
+     * Insert the commande, or update the one holding the same referentiel.
+     * <p>
+     * The write bypasses the persistence context; the second-level cache entry of the affected id is evicted. An
+     * update increments the version without checking it.
+     *
+     * @param commande the commande to write, its id is ignored.
+     * @return the id of the written row, whether it was inserted, and its version once written.
+     */
+    Upsert upsertByReferentiel(Commande commande);
+
+    record Upsert(Long id, boolean created, Long version) {}
+}
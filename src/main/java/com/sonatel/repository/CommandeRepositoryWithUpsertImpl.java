@@ -0,0 +1,86 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.TimeZone;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.Generator;
+
+/**
+ * Utility repository to upsert a {@link Commande} by its referentiel with a single call of the {@code upsert_commande}
+ * procedure.
+ * <p>
+ * {@code commande} being partitioned, the uniqueness of referentiels is held by the {@code commande_referentiel}
+ * table, filled by triggers, rather than by a unique key an {@code INSERT ... ON DUPLICATE KEY UPDATE} could use. The
+ * procedure looks the id and date of the referentiel up there; the commande is then updated by id in the partition of
+ * that date, or inserted if there is none. An insert losing the race for the referentiel to a concurrent writer fails
+ * on {@code commande_referentiel} and is replayed as an update of the winner, within the same call.
+ * <p>
+ * The id of a new row is taken from the entity's sequence generator before the call, so pooled ids stay consistent
+ * with the ones assigned by Hibernate; it is left unused when the referentiel exists. The version of a new row starts
+ * at 0 and is incremented on every update.
+ */
+public class CommandeRepositoryWithUpsertImpl implements CommandeRepositoryWithUpsert {
+
+    private static final String UPSERT_SQL = "{call upsert_commande(?, ?, ?, ?, ?, ?, ?)}";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Upsert upsertByReferentiel(Commande commande) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        // Same zone as the timestamps bound by Hibernate (hibernate.jdbc.time_zone)
+        TimeZone jdbcTimeZone = session.getJdbcTimeZone() != null ? session.getJdbcTimeZone() : TimeZone.getDefault();
+        Generator generator = session.getFactory().getMappingMetamodel().getEntityDescriptor(Commande.class).getGenerator();
+        Long newId = (Long) ((BeforeExecutionGenerator) generator).generate(session, commande, null, EventType.INSERT);
+
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        CallableStatement statement = (CallableStatement) jdbcCoordinator.getStatementPreparer().prepareStatement(UPSERT_SQL, true);
+        Upsert upsert;
+        try {
+            statement.setLong(1, newId);
+            statement.setString(2, commande.getReferentiel());
+            statement.setString(3, commande.getUserId());
+            statement.setTimestamp(4, Timestamp.from(commande.getDateCommande()), Calendar.getInstance(jdbcTimeZone));
+            statement.registerOutParameter(5, Types.BIGINT);
+            statement.registerOutParameter(6, Types.BOOLEAN);
+            statement.registerOutParameter(7, Types.BIGINT);
+            jdbcCoordinator.getResultSetReturn().executeUpdate(statement, UPSERT_SQL);
+            Long version = statement.getObject(7, Long.class);
+            upsert = version != null ? new Upsert(statement.getObject(5, Long.class), statement.getBoolean(6), version) : null;
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not upsert Commande", UPSERT_SQL);
+        } finally {
+            jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbcCoordinator.afterStatementExecution();
+        }
+
+        if (upsert == null) {
+            throw new IllegalStateException(
+                "Concurrent writes kept the upsert of Commande " + commande.getReferentiel() + " from completing"
+            );
+        }
+        if (!upsert.created()) {
+            Long id = upsert.id();
+            evict(session, id);
+            // Evict again once committed, so a concurrent read cannot put the previous state back in the meantime
+            session.getActionQueue().registerProcess((success, s) -> evict(s, id));
+        }
+        return upsert;
+    }
+
+    private static void evict(SharedSessionContractImplementor session, Long id) {
+        session.getFactory().getCache().evictEntityData(Commande.class, id);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import java.util.Optional;
+
+/**
+ * Utility repository to update a {@link Commande} without reading it first.
+ */
+public interface CommandeRepositoryWithVersionedUpdate {
+    /**
+     * Overwrite the referentiel, userId and dateCommande of the commande with the same id, if its version still matches.
+     * <p>
+     * The write bypasses the persistence context; the second-level cache entry of the commande is evicted. A {@code null}
+     * version updates the row whatever its current version.
+     *
+     * @param commande the new state of the commande.
+     * @return the version of the updated commande, or empty if there is no commande with this id.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the version of the commande changed.
+     */
+    Optional<Long> updateById(Commande commande);
+
+    /**
+     * Overwrite only the non-null referentiel, userId and dateCommande of {@code patch} on the commande with the same id,
+     * if its version still matches.
+     * <p>
+     * A {@code null} version updates the row whatever its current version.
+     *
+     * @param patch the id, the expected version and the changed fields of the commande.
+     * @return the updated commande, or empty if there is no commande with this id.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the version of the commande changed.
+     */
+    Optional<Commande> patchById(Commande patch);
+}
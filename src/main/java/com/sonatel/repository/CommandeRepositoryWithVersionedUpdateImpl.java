@@ -0,0 +1,170 @@
+package com.sonatel.repository;
+
+import com.sonatel.domain.Commande;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Calendar;
+import java.util.Optional;
+import java.util.TimeZone;
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Utility repository to update a {@link Commande} with a single call of the {@code update_commande} procedure.
+ * <p>
+ * The procedure finds the partition of the commande from its {@code commande_referentiel} row, then runs one
+ * {@code UPDATE ... WHERE id = ? AND date_commande = ? AND version = ?}, and tells from the affected-row count a
+ * successful update from a missing or stale row. The happy path costs one round trip instead of a {@code SELECT}
+ * followed by the {@code UPDATE} of a merge, and returns the new version. Statements go through Hibernate's JDBC
+ * coordinator, so they show in its statistics and logs like generated ones.
+ * <p>
+ * A patch writes only the columns it changes. When the second-level cache holds the commande at the version the patch
+ * replaced, the new state is that entry plus the patch, so nothing is read back from the database.
+ * <p>
+ * Only the second-level cache entry of the updated commande is evicted, where a bulk HQL update would invalidate the
+ * whole region.
+ */
+public class CommandeRepositoryWithVersionedUpdateImpl implements CommandeRepositoryWithVersionedUpdate {
+
+    // Null columns keep their value, a null version matches any
+    private static final String UPDATE_SQL = "{call update_commande(?, ?, ?, ?, ?, ?, ?)}";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Long> updateById(Commande commande) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Optional<Long> version = update(session, commande);
+        version.ifPresent(updated -> evict(session, commande.getId()));
+        return version;
+    }
+
+    @Override
+    public Optional<Commande> patchById(Commande patch) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        Long id = patch.getId();
+        if (patch.getReferentiel() == null && patch.getUserId() == null && patch.getDateCommande() == null) {
+            // Nothing to write, only the version to check
+            Commande commande = session.find(Commande.class, id);
+            if (commande != null && patch.getVersion() != null && !patch.getVersion().equals(commande.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Commande.class, id);
+            }
+            return Optional.ofNullable(commande);
+        }
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister(session)));
+        boolean cached = session.getFactory().getCache().containsEntity(Commande.class, id);
+        Optional<Long> version = update(session, patch);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Commande commande = null;
+        if (managed == null && cached) {
+            // The cached state at the version just replaced plus the patch is the new state, no need to read it back
+            commande = session.find(Commande.class, id);
+            session.detach(commande);
+            if (commande.getVersion() == version.get() - 1) {
+                applyPatch(commande, patch);
+                commande.setVersion(version.get());
+            } else {
+                commande = null;
+            }
+        }
+        evict(session, id);
+        if (commande == null) {
+            if (managed != null) {
+                // The loader of Commande is a provided query, which cannot refresh an instance in place
+                session.detach(managed);
+            }
+            commande = session.find(Commande.class, id);
+        }
+        return Optional.of(commande);
+    }
+
+    private static void applyPatch(Commande commande, Commande patch) {
+        if (patch.getReferentiel() != null) {
+            commande.setReferentiel(patch.getReferentiel());
+        }
+        if (patch.getUserId() != null) {
+            commande.setUserId(patch.getUserId());
+        }
+        if (patch.getDateCommande() != null) {
+            commande.setDateCommande(patch.getDateCommande());
+        }
+    }
+
+    /**
+     * Call {@code update_commande}, writing only the non-null fields of {@code commande}.
+     *
+     * @return the new version, or empty if there is no commande with this id.
+     */
+    private static Optional<Long> update(SessionImplementor session, Commande commande) {
+        // Same zone as the timestamps bound by Hibernate (hibernate.jdbc.time_zone)
+        TimeZone jdbcTimeZone = session.getJdbcTimeZone() != null ? session.getJdbcTimeZone() : TimeZone.getDefault();
+
+        JdbcCoordinator jdbcCoordinator = session.getJdbcCoordinator();
+        CallableStatement statement = (CallableStatement) jdbcCoordinator.getStatementPreparer().prepareStatement(UPDATE_SQL, true);
+        boolean found;
+        Long version;
+        try {
+            statement.setLong(1, commande.getId());
+            statement.setString(2, commande.getReferentiel());
+            statement.setString(3, commande.getUserId());
+            if (commande.getDateCommande() != null) {
+                statement.setTimestamp(4, Timestamp.from(commande.getDateCommande()), Calendar.getInstance(jdbcTimeZone));
+            } else {
+                statement.setNull(4, Types.TIMESTAMP);
+            }
+            if (commande.getVersion() != null) {
+                statement.setLong(5, commande.getVersion());
+            } else {
+                statement.setNull(5, Types.BIGINT);
+            }
+            statement.registerOutParameter(6, Types.BOOLEAN);
+            statement.registerOutParameter(7, Types.BIGINT);
+            jdbcCoordinator.getResultSetReturn().executeUpdate(statement, UPDATE_SQL);
+            found = statement.getBoolean(6);
+            version = statement.getObject(7, Long.class);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "could not update Commande", UPDATE_SQL);
+        } finally {
+            release(jdbcCoordinator, statement);
+        }
+
+        if (version == null && found && commande.getVersion() != null) {
+            throw new ObjectOptimisticLockingFailureException(Commande.class, commande.getId());
+        }
+        return Optional.ofNullable(version);
+    }
+
+    private static void release(JdbcCoordinator jdbcCoordinator, PreparedStatement statement) {
+        jdbcCoordinator.getLogicalConnection().getResourceRegistry().release(statement);
+        jdbcCoordinator.afterStatementExecution();
+    }
+
+    private static EntityPersister persister(SessionImplementor session) {
+        return session.getFactory().getMappingMetamodel().getEntityDescriptor(Commande.class);
+    }
+
+    /**
+     * Evict the cached commande now, and again once committed so a concurrent read cannot put the previous state back
+     * in the meantime.
+     */
+    private static void evict(SessionImplementor session, Long id) {
+        evictEntityData(session, id);
+        session.getActionQueue().registerProcess((success, s) -> evictEntityData(s, id));
+    }
+
+    private static void evictEntityData(SharedSessionContractImplementor session, Long id) {
+        session.getFactory().getCache().evictEntityData(Commande.class, id);
+    }
+}
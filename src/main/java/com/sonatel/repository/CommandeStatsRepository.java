@@ -0,0 +1,162 @@
+package com.sonatel.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.hibernate.query.NativeQuery;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository of the {@link com.sonatel.domain.Commande} count rollups, maintained from the deltas appended by the
+ * {@code commande} triggers.
+ * <p>
+ * The counts read include the deltas not folded yet, so they are exact at any time; folding only keeps the delta
+ * table short.
+ */
+@Repository
+public class CommandeStatsRepository {
+
+    private static final String DAILY_SQL =
+        "select day, sum(commande_count) as commande_count from (" +
+        " select day, commande_count from commande_daily_stats where day between ?1 and ?2" +
+        " union all select day, delta from commande_stats_delta where day between ?1 and ?2" +
+        ") counts group by day having sum(commande_count) > 0 order by day";
+
+    private static final String DAILY_OF_USER_SQL =
+        "select day, sum(commande_count) as commande_count from (" +
+        " select day, commande_count from commande_daily_user_stats where user_id = ?3 and day between ?1 and ?2" +
+        " union all select day, delta from commande_stats_delta where user_id = ?3 and day between ?1 and ?2" +
+        ") counts group by day having sum(commande_count) > 0 order by day";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Count of commandes per day of {@code [from, to]}, leaving out the days without any.
+     */
+    public List<DailyCount> findDailyCounts(LocalDate from, LocalDate to) {
+        return dailyCounts(entityManager.createNativeQuery(DAILY_SQL).setParameter(1, from).setParameter(2, to));
+    }
+
+    /**
+     * Count of commandes of the user per day of {@code [from, to]}, leaving out the days without any.
+     */
+    public List<DailyCount> findDailyCountsOfUser(String userId, LocalDate from, LocalDate to) {
+        return dailyCounts(
+            entityManager.createNativeQuery(DAILY_OF_USER_SQL).setParameter(1, from).setParameter(2, to).setParameter(3, userId)
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<DailyCount> dailyCounts(Query query) {
+        List<Object[]> rows = query
+            .unwrap(NativeQuery.class)
+            .addScalar("day", LocalDate.class)
+            .addScalar("commande_count", Long.class)
+            .getResultList();
+        return rows.stream().map(row -> new DailyCount((LocalDate) row[0], (Long) row[1])).toList();
+    }
+
+    /**
+     * The oldest deltas committed, from a plain consistent read: a locking one would also lock the gap after the last
+     * delta, and so block every commande write until the transaction ends.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Delta> findOldestDeltas(int limit) {
+        List<Object[]> rows = entityManager
+            .createNativeQuery("select id, day, user_id, delta from commande_stats_delta order by id limit ?1")
+            .setParameter(1, limit)
+            .unwrap(NativeQuery.class)
+            .addScalar("id", Long.class)
+            .addScalar("day", LocalDate.class)
+            .addScalar("user_id", String.class)
+            .addScalar("delta", Integer.class)
+            .getResultList();
+        return rows.stream().map(row -> new Delta((Long) row[0], (LocalDate) row[1], (String) row[2], (Integer) row[3])).toList();
+    }
+
+    /**
+     * Add the given counts to the daily rollup, in a single statement.
+     */
+    public void addDailyCounts(Map<LocalDate, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        Query query = nativeUpdate(
+            "commande_daily_stats",
+            "insert into commande_daily_stats (day, commande_count) values " +
+            values(counts.size(), 2) +
+            " as excluded on duplicate key update commande_count = commande_daily_stats.commande_count + excluded.commande_count"
+        );
+        int position = 1;
+        for (Map.Entry<LocalDate, Long> count : counts.entrySet()) {
+            query.setParameter(position++, count.getKey()).setParameter(position++, count.getValue());
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Add the given counts to the per-user daily rollup, in a single statement.
+     */
+    public void addDailyUserCounts(Map<UserDay, Long> counts) {
+        if (counts.isEmpty()) {
+            return;
+        }
+        Query query = nativeUpdate(
+            "commande_daily_user_stats",
+            "insert into commande_daily_user_stats (user_id, day, commande_count) values " +
+            values(counts.size(), 3) +
+            " as excluded on duplicate key update commande_count = commande_daily_user_stats.commande_count + excluded.commande_count"
+        );
+        int position = 1;
+        for (Map.Entry<UserDay, Long> count : counts.entrySet()) {
+            query
+                .setParameter(position++, count.getKey().userId())
+                .setParameter(position++, count.getKey().day())
+                .setParameter(position++, count.getValue());
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * Delete the given deltas, locking only their rows.
+     *
+     * @return the number of deltas deleted, fewer than given when another transaction deleted some first.
+     */
+    public int deleteDeltas(List<Long> ids) {
+        return nativeUpdate("commande_stats_delta", "delete from commande_stats_delta where id in (?1)")
+            .setParameter(1, ids)
+            .executeUpdate();
+    }
+
+    /**
+     * Without a declared query space, Hibernate would evict the whole second-level cache after a native update.
+     */
+    private Query nativeUpdate(String table, String sql) {
+        return entityManager.createNativeQuery(sql).unwrap(NativeQuery.class).addSynchronizedQuerySpace(table);
+    }
+
+    /**
+     * {@code rows} tuples of {@code columns} numbered parameters, for a multi-row {@code VALUES} clause.
+     */
+    private static String values(int rows, int columns) {
+        StringBuilder values = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            values.append(row == 0 ? "(" : ", (");
+            for (int column = 1; column <= columns; column++) {
+                values.append(column == 1 ? "?" : ", ?").append(row * columns + column);
+            }
+            values.append(')');
+        }
+        return values.toString();
+    }
+
+    public record DailyCount(LocalDate day, long commandeCount) {}
+
+    public record UserDay(String userId, LocalDate day) {}
+
+    public record Delta(long id, LocalDate day, String userId, int delta) {}
+}
@@ -0,0 +1,165 @@
+package com.sonatel.service;
+
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Loads the recent commandes into the second-level cache when the node starts, so that a freshly deployed node does
+ * not serve its first requests from a cold cache.
+ * <p>
+ * The last {@code application.cache.warm-up.days} days are loaded one day at a time, newest first, by
+ * {@code parallelism} workers on the {@code cacheWarmUpExecutor}: the shared {@code taskExecutor} only grows past its
+ * core size once its queue is full, so it would run fewer workers than configured. Each commande is read back by id
+ * once loaded, as the near cache only keeps the entries read from the second-level cache, not those put in it. The
+ * warm-up is over when its time budget is spent at the latest; {@link #isDone()} tells whether it is over.
+ */
+@Service
+public class CacheWarmUpService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheWarmUpService.class);
+
+    private final CommandeRepository commandeRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean secondLevelCacheEnabled;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final Executor executor;
+
+    private final AtomicLong loaded = new AtomicLong();
+
+    private final CompletableFuture<Long> warmUp = new CompletableFuture<>();
+
+    public CacheWarmUpService(
+        CommandeRepository commandeRepository,
+        EntityManager entityManager,
+        EntityManagerFactory entityManagerFactory,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        @Qualifier("cacheWarmUpExecutor") Executor executor
+    ) {
+        this.commandeRepository = commandeRepository;
+        this.entityManager = entityManager;
+        // Not read-only: with replication enabled, that would read from a replica, which may lag behind the primary
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.secondLevelCacheEnabled = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getSessionFactoryOptions()
+            .isSecondLevelCacheEnabled();
+        this.applicationProperties = applicationProperties;
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        start(Instant.now());
+    }
+
+    /**
+     * Start the warm-up of the commandes dated before {@code now}.
+     *
+     * @param now the end of the period to load.
+     * @return the warm-up, completed with the number of commandes loaded.
+     */
+    CompletableFuture<Long> start(Instant now) {
+        ApplicationProperties.Cache.WarmUp properties = applicationProperties.getCache().getWarmUp();
+        if (!properties.isEnabled() || !secondLevelCacheEnabled || properties.getDays() <= 0) {
+            warmUp.complete(0L);
+            return warmUp;
+        }
+
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.SECONDS.toNanos(properties.getTimeBudgetSeconds());
+        // The newest day is left open-ended to include commandes dated in the future
+        Queue<Day> days = new ConcurrentLinkedQueue<>(
+            IntStream.range(0, properties.getDays())
+                .mapToObj(i -> new Day(now.minus(i + 1, ChronoUnit.DAYS), i == 0 ? null : now.minus(i, ChronoUnit.DAYS)))
+                .toList()
+        );
+        CompletableFuture<?>[] workers = IntStream.range(0, Math.max(1, Math.min(properties.getParallelism(), properties.getDays())))
+            .mapToObj(i -> CompletableFuture.runAsync(() -> loadDays(days, deadline), executor))
+            .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(workers)
+            .completeOnTimeout(null, properties.getTimeBudgetSeconds(), TimeUnit.SECONDS)
+            .whenComplete((result, e) -> {
+                Duration elapsed = Duration.ofNanos(System.nanoTime() - startTime);
+                if (e != null) {
+                    LOG.warn("Cache warm-up failed after loading {} commandes in {}", loaded.get(), elapsed, e);
+                } else if (!days.isEmpty() || System.nanoTime() - deadline >= 0) {
+                    LOG.warn("Cache warm-up stopped by its time budget after loading {} commandes in {}", loaded.get(), elapsed);
+                } else {
+                    LOG.info("Cache warm-up loaded {} commandes in {}", loaded.get(), elapsed);
+                }
+                warmUp.complete(loaded.get());
+            });
+        return warmUp;
+    }
+
+    private void loadDays(Queue<Day> days, long deadline) {
+        Day day;
+        while (System.nanoTime() - deadline < 0 && (day = days.poll()) != null) {
+            Day current = day;
+            transactionTemplate.executeWithoutResult(status -> load(current, deadline));
+        }
+    }
+
+    private void load(Day day, long deadline) {
+        // Loading an entity puts it in the second-level cache, finding it once detached reads it back from there
+        try (Stream<Commande> commandes = commandeRepository.streamAll(day.from(), day.to())) {
+            Iterator<Commande> iterator = commandes.iterator();
+            while (iterator.hasNext() && System.nanoTime() - deadline < 0) {
+                Commande commande = iterator.next();
+                entityManager.detach(commande);
+                Commande cached = entityManager.find(Commande.class, commande.getId());
+                if (cached != null) {
+                    entityManager.detach(cached);
+                }
+                loaded.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return whether the warm-up is over, because all commandes were loaded, it failed or its time budget is spent.
+     */
+    public boolean isDone() {
+        return warmUp.isDone();
+    }
+
+    /**
+     * @return the number of commandes loaded so far.
+     */
+    public long getLoaded() {
+        return loaded.get();
+    }
+
+    private record Day(Instant from, Instant to) {}
+}
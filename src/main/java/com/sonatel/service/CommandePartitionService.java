@@ -0,0 +1,172 @@
+package com.sonatel.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.repository.CommandePartitionRepository;
+import com.sonatel.repository.CommandePartitionRepository.OrphanKey;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the monthly partitions of {@link com.sonatel.domain.Commande}.
+ * <p>
+ * The months up to {@code application.partitioning.ahead-months} after the current one get their partition ahead of
+ * time, so that {@code pmax} stays empty and splitting it stays cheap. The months older than
+ * {@code application.partitioning.retention-months} are archived to their own table, or dropped. Rows going away with
+ * a partition are not counted out of the daily stats.
+ * <p>
+ * Every node runs the schedule, but only the one holding the {@value #MAINTENANCE_LOCK_MAP_NAME} Hazelcast lock does
+ * the work. Once a month has expired, its {@code commande_referentiel} rows are released and a {@link CommandesExpired}
+ * event lets the caches holding its commandes be cleared.
+ */
+@Service
+public class CommandePartitionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandePartitionService.class);
+
+    public static final String MAINTENANCE_LOCK_MAP_NAME = "commande-partition-maintenance";
+
+    private static final String MAINTENANCE_LOCK = "commande";
+
+    // Far above the time a maintenance takes; Hazelcast also releases the lock of a node leaving the cluster
+    private static final long MAINTENANCE_LOCK_LEASE_HOURS = 1;
+
+    static final int RELEASE_BATCH_SIZE = 1_000;
+
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("p(\\d{4})(\\d{2})");
+
+    /**
+     * Published once the commandes of a month have left the {@code commande} table.
+     *
+     * @param month the expired month.
+     */
+    public record CommandesExpired(YearMonth month) {}
+
+    private final CommandePartitionRepository commandePartitionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final IMap<String, Boolean> maintenanceLocks;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CommandePartitionService(
+        CommandePartitionRepository commandePartitionRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        HazelcastInstance hazelcastInstance,
+        ApplicationEventPublisher eventPublisher
+    ) {
+        this.commandePartitionRepository = commandePartitionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.maintenanceLocks = hazelcastInstance.getMap(MAINTENANCE_LOCK_MAP_NAME);
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(cron = "${application.partitioning.cron:0 0 3 * * *}", zone = "UTC")
+    public void maintain() {
+        try {
+            maintain(YearMonth.now(ZoneOffset.UTC));
+        } catch (RuntimeException e) {
+            // Each step is committed on its own; the next run starts over from the partitions left
+            LOG.warn("Could not maintain the partitions of commande: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Bring the partitions in line with the given current month, unless another node is doing it.
+     *
+     * @param current the current month.
+     */
+    public void maintain(YearMonth current) {
+        try {
+            if (!maintenanceLocks.tryLock(MAINTENANCE_LOCK, 0, TimeUnit.SECONDS, MAINTENANCE_LOCK_LEASE_HOURS, TimeUnit.HOURS)) {
+                LOG.debug("The partitions of commande are being maintained by another node");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            doMaintain(current);
+        } finally {
+            maintenanceLocks.unlock(MAINTENANCE_LOCK);
+        }
+    }
+
+    private void doMaintain(YearMonth current) {
+        List<String> partitions = transactionTemplate.execute(status -> commandePartitionRepository.findPartitionNames());
+        if (partitions.isEmpty()) {
+            LOG.warn("The commande table is not partitioned");
+            return;
+        }
+        List<YearMonth> months = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+            if (matcher.matches()) {
+                months.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+            }
+        }
+
+        YearMonth last = months.isEmpty() ? current.minusMonths(1) : months.get(months.size() - 1);
+        YearMonth lastNeeded = current.plusMonths(applicationProperties.getPartitioning().getAheadMonths());
+        List<YearMonth> missing = new ArrayList<>();
+        for (YearMonth month = last.plusMonths(1); !month.isAfter(lastNeeded); month = month.plusMonths(1)) {
+            missing.add(month);
+        }
+        if (!missing.isEmpty()) {
+            LOG.info("Adding the partitions of commande for {}", missing);
+            transactionTemplate.executeWithoutResult(status -> commandePartitionRepository.addPartitions(missing));
+        }
+
+        int retentionMonths = applicationProperties.getPartitioning().getRetentionMonths();
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths);
+            months.stream().filter(month -> month.isBefore(oldestKept)).forEach(this::expire);
+        }
+    }
+
+    private void expire(YearMonth month) {
+        boolean archive = applicationProperties.getPartitioning().isArchive();
+        String archiveTable = CommandePartitionRepository.archiveTableName(month);
+        if (archive && Boolean.TRUE.equals(transactionTemplate.execute(status -> commandePartitionRepository.tableExists(archiveTable)))) {
+            LOG.warn("Not archiving the commandes of {}: table {} already exists", month, archiveTable);
+            return;
+        }
+        LOG.info("{} the commandes of {}", archive ? "Archiving" : "Dropping", month);
+        if (archive) {
+            transactionTemplate.executeWithoutResult(status -> commandePartitionRepository.archivePartition(month));
+        }
+        transactionTemplate.executeWithoutResult(status -> commandePartitionRepository.dropPartition(month));
+        // The referentiels stay taken until then. Everything dated before the month is scanned, so a failure here leaves
+        // them to the next expiry; the months before were released by theirs, so the scan mostly covers this one
+        Instant before = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Optional<OrphanKey> after = Optional.empty();
+        do {
+            OrphanKey last = after.orElse(null);
+            after = transactionTemplate.execute(status ->
+                commandePartitionRepository.releaseOrphanReferentiels(before, last, RELEASE_BATCH_SIZE)
+            );
+        } while (after != null && after.isPresent());
+        eventPublisher.publishEvent(new CommandesExpired(month));
+    }
+}
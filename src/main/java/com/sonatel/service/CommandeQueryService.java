@@ -0,0 +1,106 @@
+package com.sonatel.service;
+
+import com.sonatel.domain.*; // for static metamodels
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeRepository;
+import com.sonatel.service.criteria.CommandeCriteria;
+import com.sonatel.service.dto.CommandeCursor;
+import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.mapper.CommandeMapper;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.service.QueryService;
+
+/**
+ * Service for executing complex queries for {@link Commande} entities in the database.
+ * The main input is a {@link CommandeCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link List} of {@link CommandeDTO} which fulfills the criteria, one keyset page at a time.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CommandeQueryService extends QueryService<Commande> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeQueryService.class);
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc(Commande_.DATE_COMMANDE), Sort.Order.desc(Commande_.ID));
+
+    private final CommandeRepository commandeRepository;
+
+    private final CommandeMapper commandeMapper;
+
+    public CommandeQueryService(CommandeRepository commandeRepository, CommandeMapper commandeMapper) {
+        this.commandeRepository = commandeRepository;
+        this.commandeMapper = commandeMapper;
+    }
+
+    /**
+     * Return a keyset page of {@link CommandeDTO} which matches the criteria from the database, newest first.
+     * No count query is issued.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after the position to continue from, or {@code null} for the first page.
+     * @param size the maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public List<CommandeDTO> findByCriteria(CommandeCriteria criteria, CommandeCursor after, int size) {
+        LOG.debug("find by criteria : {}, after: {}, size: {}", criteria, after, size);
+        final Specification<Commande> specification = createSpecification(criteria).and(afterCursor(after));
+        // Projected rather than loaded as entities: the page is only read
+        return commandeRepository
+            .findProjectedBy(specification, KEYSET_SORT, size)
+            .stream()
+            .map(commandeMapper::toDto)
+            .toList();
+    }
+
+    /**
+     * Function to convert {@link CommandeCriteria} to a {@link Specification}
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Commande> createSpecification(CommandeCriteria criteria) {
+        Specification<Commande> specification = Specification.where(null);
+        if (criteria != null) {
+            // This has to be called first, because the distinct method returns null
+            if (Boolean.TRUE.equals(criteria.getDistinct())) {
+                specification = specification.and(distinct(criteria.getDistinct()));
+            }
+            if (criteria.getId() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getId(), Commande_.id));
+            }
+            if (criteria.getReferentiel() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getReferentiel(), Commande_.referentiel));
+            }
+            if (criteria.getUserId() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getUserId(), Commande_.userId));
+            }
+            if (criteria.getDateCommande() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getDateCommande(), Commande_.dateCommande));
+            }
+        }
+        return specification;
+    }
+
+    /**
+     * Keyset predicate matching the rows strictly after {@code after} in {@link #KEYSET_SORT} order.
+     */
+    private Specification<Commande> afterCursor(CommandeCursor after) {
+        if (after == null) {
+            return null;
+        }
+        return (root, query, builder) ->
+            builder.and(
+                builder.lessThanOrEqualTo(root.get(Commande_.dateCommande), after.getDateCommande()),
+                builder.or(
+                    builder.lessThan(root.get(Commande_.dateCommande), after.getDateCommande()),
+                    builder.lessThan(root.get(Commande_.id), after.getId())
+                )
+            );
+    }
+}
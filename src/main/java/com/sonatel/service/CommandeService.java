@@ -1,8 +1,13 @@
 package com.sonatel.service;
 
+import com.sonatel.service.dto.CommandeBulkResultDTO;
+import com.sonatel.service.dto.CommandeCursor;
 import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.dto.CommandeMultiGetDTO;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing {@link com.sonatel.domain.Commande}.
@@ -17,27 +22,50 @@ public interface CommandeService {
     CommandeDTO save(CommandeDTO commandeDTO);
 
     /**
-     * Updates a commande.
+     * Save many new commandes, committing them in chunks.
+     * <p>
+     * Commandes that are invalid, or whose referentiel is already used, are rejected individually without failing the others.
+     *
+     * @param commandeDTOs the entities to save.
+     * @return the outcome of each entity, in submission order.
+     */
+    CommandeBulkResultDTO saveAll(List<CommandeDTO> commandeDTOs);
+
+    /**
+     * Updates a commande, if its version is still the one of {@code commandeDTO}.
      *
      * @param commandeDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is no entity with this id.
+     * @throws org.springframework.dao.ConcurrencyFailureException if the entity was updated in the meantime.
      */
-    CommandeDTO update(CommandeDTO commandeDTO);
+    Optional<CommandeDTO> update(CommandeDTO commandeDTO);
 
     /**
-     * Partially updates a commande.
+     * Partially updates a commande, if its version is still the one of {@code commandeDTO}.
      *
      * @param commandeDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if there is no entity with this id.
+     * @throws org.springframework.dao.ConcurrencyFailureException if the entity was updated in the meantime.
      */
     Optional<CommandeDTO> partialUpdate(CommandeDTO commandeDTO);
 
     /**
-     * Get all the commandes.
+     * Create or update the commande holding the referentiel of {@code commandeDTO}, in a single statement.
+     *
+     * @param commandeDTO the entity to write, without id.
+     * @return the persisted entity, and whether it was created.
+     */
+    Upserted upsertByReferentiel(CommandeDTO commandeDTO);
+
+    /**
+     * Stream the commandes of {@code [from, to)} to {@code sink}, oldest first, in constant memory.
      *
-     * @return the list of entities.
+     * @param from the inclusive lower bound on dateCommande, or {@code null}.
+     * @param to the exclusive upper bound on dateCommande, or {@code null}.
+     * @param sink the consumer of each commande.
+     * @return the number of exported entities.
      */
-    List<CommandeDTO> findAll();
+    long export(Instant from, Instant to, Consumer<CommandeDTO> sink);
 
     /**
      * Get the "id" commande.
@@ -47,10 +75,52 @@ public interface CommandeService {
      */
     Optional<CommandeDTO> findOne(Long id);
 
+    /**
+     * Get the current version of the "id" commande, from its second-level cache entry if there is one, else from the
+     * database, without mapping the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version of the entity.
+     */
+    Optional<Long> findVersion(Long id);
+
+    /**
+     * Get the commandes of the given ids, reading the second-level cache before the database.
+     *
+     * @param ids the ids of the entities, in the expected order.
+     * @return the entities found, in the order of {@code ids}, and the ids not found.
+     */
+    CommandeMultiGetDTO findAllById(List<Long> ids);
+
+    /**
+     * Get the commande by its unique "referentiel".
+     *
+     * @param referentiel the natural id of the entity.
+     * @return the entity.
+     */
+    Optional<CommandeDTO> findOneByReferentiel(String referentiel);
+
+    /**
+     * Get a keyset page of the commandes of a user, newest first. The rows are projected straight into DTOs, no entity
+     * is loaded.
+     *
+     * @param userId the user of the commandes.
+     * @param after the position to continue from, or {@code null} for the first page.
+     * @param size the maximum number of commandes.
+     * @return the page of commandes.
+     */
+    List<CommandeDTO> findHistoryByUserId(String userId, CommandeCursor after, int size);
+
     /**
      * Delete the "id" commande.
      *
      * @param id the id of the entity.
+     * @return the version of the deleted entity, or empty if there was none.
+     */
+    Optional<Long> delete(Long id);
+
+    /**
+     * Outcome of {@link #upsertByReferentiel(CommandeDTO)}.
      */
-    void delete(Long id);
+    record Upserted(CommandeDTO commande, boolean created) {}
 }
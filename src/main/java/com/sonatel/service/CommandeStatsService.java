@@ -0,0 +1,114 @@
+package com.sonatel.service;
+
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.repository.CommandeStatsRepository;
+import com.sonatel.repository.CommandeStatsRepository.DailyCount;
+import com.sonatel.repository.CommandeStatsRepository.Delta;
+import com.sonatel.repository.CommandeStatsRepository.UserDay;
+import com.sonatel.service.dto.CommandeDailyStatsDTO;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service for the daily {@link com.sonatel.domain.Commande} counts.
+ * <p>
+ * Reads cost one rollup row per day, plus the deltas still pending. The deltas appended by the {@code commande}
+ * triggers are folded into the rollups periodically, in batches of {@code application.stats.fold-batch-size}.
+ */
+@Service
+public class CommandeStatsService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeStatsService.class);
+
+    private final CommandeStatsRepository commandeStatsRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    public CommandeStatsService(
+        CommandeStatsRepository commandeStatsRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.commandeStatsRepository = commandeStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Get the number of commandes per day of {@code [from, to]}, of every user or of the given one. Days without
+     * commandes are left out.
+     *
+     * @param userId the user of the commandes, or {@code null} for all of them.
+     * @param from the first day.
+     * @param to the last day, included.
+     * @return the counts, by increasing day.
+     */
+    @Transactional(readOnly = true)
+    public List<CommandeDailyStatsDTO> findDaily(String userId, LocalDate from, LocalDate to) {
+        LOG.debug("Request to get the daily Commande counts of user {} from {} to {}", userId, from, to);
+        List<DailyCount> counts = userId == null
+            ? commandeStatsRepository.findDailyCounts(from, to)
+            : commandeStatsRepository.findDailyCountsOfUser(userId, from, to);
+        return counts.stream().map(count -> new CommandeDailyStatsDTO(count.day(), count.commandeCount())).toList();
+    }
+
+    /**
+     * Fold the pending deltas into the rollups, one transaction per batch, until none is left.
+     *
+     * @return the number of deltas folded.
+     */
+    @Scheduled(fixedDelayString = "${application.stats.fold-interval-seconds:10}", timeUnit = TimeUnit.SECONDS)
+    public long fold() {
+        int batchSize = applicationProperties.getStats().getFoldBatchSize();
+        long folded = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> foldBatch(batchSize, status));
+            folded += batch;
+        } while (batch == batchSize);
+        if (folded > 0) {
+            LOG.debug("Folded {} Commande count deltas", folded);
+        }
+        return folded;
+    }
+
+    private int foldBatch(int batchSize, TransactionStatus status) {
+        List<Delta> deltas = commandeStatsRepository.findOldestDeltas(batchSize);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        // Deleting first claims these deltas: a fold running on another node has either deleted some of them already,
+        // or waits for this transaction and then finds them gone
+        if (commandeStatsRepository.deleteDeltas(deltas.stream().map(Delta::id).toList()) != deltas.size()) {
+            LOG.debug("Commande count deltas folded concurrently, leaving the rest to the next fold");
+            status.setRollbackOnly();
+            return 0;
+        }
+        // Sorted keys, so that concurrent folds lock the rollup rows in the same order
+        Map<LocalDate, Long> daily = new TreeMap<>();
+        Map<UserDay, Long> dailyOfUser = new TreeMap<>(Comparator.comparing(UserDay::userId).thenComparing(UserDay::day));
+        for (Delta delta : deltas) {
+            daily.merge(delta.day(), (long) delta.delta(), Long::sum);
+            dailyOfUser.merge(new UserDay(delta.userId(), delta.day()), (long) delta.delta(), Long::sum);
+        }
+        daily.values().removeIf(count -> count == 0);
+        dailyOfUser.values().removeIf(count -> count == 0);
+        commandeStatsRepository.addDailyCounts(daily);
+        commandeStatsRepository.addDailyUserCounts(dailyOfUser);
+        return deltas.size();
+    }
+}
@@ -0,0 +1,85 @@
+package com.sonatel.service;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.config.CacheNames;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs an action at most once per {@code Idempotency-Key}, cluster-wide.
+ * <p>
+ * Results are kept in the {@value CacheNames#IDEMPOTENCY_KEYS} Hazelcast map, whose time-to-live is set by
+ * {@code application.idempotency.time-to-live-seconds}. A replay is served from the map alone; concurrent requests with
+ * the same key wait on the key lock and then get the result of the first one.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IMap<String, IdempotentResult> results;
+
+    private final ApplicationProperties applicationProperties;
+
+    public IdempotencyService(HazelcastInstance hazelcastInstance, ApplicationProperties applicationProperties) {
+        this.results = hazelcastInstance.getMap(CacheNames.IDEMPOTENCY_KEYS);
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Return the result stored for {@code key}, or run {@code action} and store its result.
+     *
+     * @param key the client supplied idempotency key.
+     * @param fingerprint a digest of the request, to detect a key reused for a different request.
+     * @param action the action to run on the first request.
+     * @param <T> the type of the result.
+     * @return the result of the first request with this key.
+     * @throws IdempotencyKeyMismatchException if the key was first used with another fingerprint.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Serializable> T execute(String key, String fingerprint, Supplier<T> action) {
+        IdempotentResult stored = results.get(key);
+        if (stored == null) {
+            results.lock(key, applicationProperties.getIdempotency().getLockLeaseSeconds(), TimeUnit.SECONDS);
+            try {
+                stored = results.get(key);
+                if (stored == null) {
+                    T result = action.get();
+                    results.set(key, new IdempotentResult(fingerprint, result));
+                    return result;
+                }
+            } finally {
+                results.unlock(key);
+            }
+        }
+        LOG.debug("Replaying the result stored for Idempotency-Key : {}", key);
+        if (!Objects.equals(stored.fingerprint(), fingerprint)) {
+            throw new IdempotencyKeyMismatchException(key);
+        }
+        return (T) stored.result();
+    }
+
+    /**
+     * The result stored for an idempotency key, with the fingerprint of the request that produced it.
+     */
+    public record IdempotentResult(String fingerprint, Serializable result) implements Serializable {}
+
+    /**
+     * Thrown when an idempotency key is reused for a different request.
+     */
+    public static class IdempotencyKeyMismatchException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        public IdempotencyKeyMismatchException(String key) {
+            super("Idempotency-Key already used for another request: " + key);
+        }
+    }
+}
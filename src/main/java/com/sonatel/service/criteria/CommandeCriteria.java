@@ -0,0 +1,179 @@
+package com.sonatel.service.criteria;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Optional;
+import org.springdoc.core.annotations.ParameterObject;
+import tech.jhipster.service.Criteria;
+import tech.jhipster.service.filter.*;
+
+/**
+ * Criteria class for the {@link com.sonatel.domain.Commande} entity. This class is used
+ * in {@link com.sonatel.web.rest.CommandeResource} to receive all the possible filtering options from
+ * the Http GET request parameters.
+ * For example the following could be a valid request:
+ * {@code /commandes?id.greaterThan=5&attr1.contains=something&attr2.specified=false}
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+@ParameterObject
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class CommandeCriteria implements Serializable, Criteria {
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter referentiel;
+
+    private StringFilter userId;
+
+    private InstantFilter dateCommande;
+
+    private Boolean distinct;
+
+    public CommandeCriteria() {}
+
+    public CommandeCriteria(CommandeCriteria other) {
+        this.id = other.optionalId().map(LongFilter::copy).orElse(null);
+        this.referentiel = other.optionalReferentiel().map(StringFilter::copy).orElse(null);
+        this.userId = other.optionalUserId().map(StringFilter::copy).orElse(null);
+        this.dateCommande = other.optionalDateCommande().map(InstantFilter::copy).orElse(null);
+        this.distinct = other.distinct;
+    }
+
+    @Override
+    public CommandeCriteria copy() {
+        return new CommandeCriteria(this);
+    }
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public Optional<LongFilter> optionalId() {
+        return Optional.ofNullable(id);
+    }
+
+    public LongFilter id() {
+        if (id == null) {
+            setId(new LongFilter());
+        }
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getReferentiel() {
+        return referentiel;
+    }
+
+    public Optional<StringFilter> optionalReferentiel() {
+        return Optional.ofNullable(referentiel);
+    }
+
+    public StringFilter referentiel() {
+        if (referentiel == null) {
+            setReferentiel(new StringFilter());
+        }
+        return referentiel;
+    }
+
+    public void setReferentiel(StringFilter referentiel) {
+        this.referentiel = referentiel;
+    }
+
+    public StringFilter getUserId() {
+        return userId;
+    }
+
+    public Optional<StringFilter> optionalUserId() {
+        return Optional.ofNullable(userId);
+    }
+
+    public StringFilter userId() {
+        if (userId == null) {
+            setUserId(new StringFilter());
+        }
+        return userId;
+    }
+
+    public void setUserId(StringFilter userId) {
+        this.userId = userId;
+    }
+
+    public InstantFilter getDateCommande() {
+        return dateCommande;
+    }
+
+    public Optional<InstantFilter> optionalDateCommande() {
+        return Optional.ofNullable(dateCommande);
+    }
+
+    public InstantFilter dateCommande() {
+        if (dateCommande == null) {
+            setDateCommande(new InstantFilter());
+        }
+        return dateCommande;
+    }
+
+    public void setDateCommande(InstantFilter dateCommande) {
+        this.dateCommande = dateCommande;
+    }
+
+    public Boolean getDistinct() {
+        return distinct;
+    }
+
+    public Optional<Boolean> optionalDistinct() {
+        return Optional.ofNullable(distinct);
+    }
+
+    public Boolean distinct() {
+        if (distinct == null) {
+            setDistinct(true);
+        }
+        return distinct;
+    }
+
+    public void setDistinct(Boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final CommandeCriteria that = (CommandeCriteria) o;
+        return (
+            Objects.equals(id, that.id) &&
+            Objects.equals(referentiel, that.referentiel) &&
+            Objects.equals(userId, that.userId) &&
+            Objects.equals(dateCommande, that.dateCommande) &&
+            Objects.equals(distinct, that.distinct)
+        );
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, referentiel, userId, dateCommande, distinct);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommandeCriteria{" +
+            optionalId().map(f -> "id=" + f + ", ").orElse("") +
+            optionalReferentiel().map(f -> "referentiel=" + f + ", ").orElse("") +
+            optionalUserId().map(f -> "userId=" + f + ", ").orElse("") +
+            optionalDateCommande().map(f -> "dateCommande=" + f + ", ").orElse("") +
+            optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
+        "}";
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Criteria classes used to filter entities in the service layer.
+ */
+package com.sonatel.service.criteria;
@@ -0,0 +1,134 @@
+package com.sonatel.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The outcome of a bulk creation of {@link com.sonatel.domain.Commande}, one {@link Item} per submitted commande.
+ */
+public class CommandeBulkResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+    }
+
+    private int created;
+
+    private int rejected;
+
+    private List<Item> items = new ArrayList<>();
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void add(Item item) {
+        items.add(item);
+        if (item.getStatus() == Status.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+    }
+
+    public void addAll(List<Item> chunkItems) {
+        chunkItems.forEach(this::add);
+    }
+
+    /**
+     * Restore the submission order once every chunk has been processed.
+     */
+    public void sortItems() {
+        items.sort(Comparator.comparingInt(Item::getIndex));
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommandeBulkResultDTO{" +
+            "created=" + getCreated() +
+            ", rejected=" + getRejected() +
+            "}";
+    }
+
+    /**
+     * The outcome for the commande at {@code index} in the submitted list.
+     */
+    public static class Item implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private int index;
+
+        private Status status;
+
+        private Long id;
+
+        private String referentiel;
+
+        private String error;
+
+        public static Item created(int index, Long id, String referentiel) {
+            Item item = new Item();
+            item.index = index;
+            item.status = Status.CREATED;
+            item.id = id;
+            item.referentiel = referentiel;
+            return item;
+        }
+
+        public static Item rejected(int index, String referentiel, String error) {
+            Item item = new Item();
+            item.index = index;
+            item.status = Status.REJECTED;
+            item.referentiel = referentiel;
+            item.error = error;
+            return item;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getReferentiel() {
+            return referentiel;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        // prettier-ignore
+        @Override
+        public String toString() {
+            return "Item{" +
+                "index=" + getIndex() +
+                ", status=" + getStatus() +
+                ", id=" + getId() +
+                ", referentiel='" + getReferentiel() + "'" +
+                ", error='" + getError() + "'" +
+                "}";
+        }
+    }
+}
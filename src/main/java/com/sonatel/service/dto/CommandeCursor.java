@@ -0,0 +1,92 @@
+package com.sonatel.service.dto;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Keyset position in the {@link com.sonatel.domain.Commande} list, ordered by {@code (dateCommande, id)} descending.
+ * <p>
+ * The position is exchanged with clients as an opaque, URL-safe token.
+ */
+public final class CommandeCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final char SEPARATOR = ':';
+
+    private final Instant dateCommande;
+
+    private final Long id;
+
+    public CommandeCursor(Instant dateCommande, Long id) {
+        this.dateCommande = Objects.requireNonNull(dateCommande, "dateCommande");
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    public static CommandeCursor of(CommandeDTO commandeDTO) {
+        return new CommandeCursor(commandeDTO.getDateCommande(), commandeDTO.getId());
+    }
+
+    /**
+     * Decode a token previously produced by {@link #encode()}.
+     *
+     * @param token the opaque continuation token.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the token is malformed.
+     */
+    public static CommandeCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR));
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed cursor: " + token);
+            }
+            Instant dateCommande = Instant.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1]));
+            return new CommandeCursor(dateCommande, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = "" + dateCommande.getEpochSecond() + SEPARATOR + dateCommande.getNano() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getDateCommande() {
+        return dateCommande;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CommandeCursor)) {
+            return false;
+        }
+        CommandeCursor other = (CommandeCursor) o;
+        return dateCommande.equals(other.dateCommande) && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dateCommande, id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommandeCursor{" +
+            "dateCommande='" + getDateCommande() + "'" +
+            ", id=" + getId() +
+            "}";
+    }
+}
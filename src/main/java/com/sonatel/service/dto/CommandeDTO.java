@@ -22,6 +22,8 @@ public class CommandeDTO implements Serializable {
     @NotNull
     private Instant dateCommande;
 
+    private Long version;
+
     public Long getId() {
         return id;
     }
@@ -54,6 +56,14 @@ public class CommandeDTO implements Serializable {
         this.dateCommande = dateCommande;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -83,6 +93,7 @@ public class CommandeDTO implements Serializable {
             ", referentiel='" + getReferentiel() + "'" +
             ", userId='" + getUserId() + "'" +
             ", dateCommande='" + getDateCommande() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
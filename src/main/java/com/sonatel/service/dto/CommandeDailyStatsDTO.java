@@ -0,0 +1,66 @@
+package com.sonatel.service.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Number of {@link com.sonatel.domain.Commande} of a day, in UTC.
+ */
+public class CommandeDailyStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDate day;
+
+    private long count;
+
+    public CommandeDailyStatsDTO() {}
+
+    public CommandeDailyStatsDTO(LocalDate day, long count) {
+        this.day = day;
+        this.count = count;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CommandeDailyStatsDTO)) {
+            return false;
+        }
+        CommandeDailyStatsDTO other = (CommandeDailyStatsDTO) o;
+        return count == other.count && Objects.equals(day, other.day);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(day, count);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommandeDailyStatsDTO{" +
+            "day='" + getDay() + "'" +
+            ", count=" + getCount() +
+            "}";
+    }
+}
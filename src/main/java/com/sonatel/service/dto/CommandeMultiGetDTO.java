@@ -0,0 +1,45 @@
+package com.sonatel.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The result of a multi-get of {@link com.sonatel.domain.Commande} by id.
+ * <p>
+ * {@code commandes} follows the order of the requested ids; the ids that matched no commande are listed in
+ * {@code missingIds}, also in request order.
+ */
+public class CommandeMultiGetDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<CommandeDTO> commandes = new ArrayList<>();
+
+    private List<Long> missingIds = new ArrayList<>();
+
+    public List<CommandeDTO> getCommandes() {
+        return commandes;
+    }
+
+    public void setCommandes(List<CommandeDTO> commandes) {
+        this.commandes = commandes;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+
+    public void setMissingIds(List<Long> missingIds) {
+        this.missingIds = missingIds;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CommandeMultiGetDTO{" +
+            "commandes=" + getCommandes() +
+            ", missingIds=" + getMissingIds() +
+            "}";
+    }
+}
@@ -1,18 +1,42 @@
 package com.sonatel.service.impl;
 
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.config.CacheNames;
 import com.sonatel.domain.Commande;
 import com.sonatel.repository.CommandeRepository;
+import com.sonatel.repository.CommandeProjection;
+import com.sonatel.repository.CommandeRepositoryWithUpsert;
+import com.sonatel.service.CommandePartitionService.CommandesExpired;
 import com.sonatel.service.CommandeService;
+import com.sonatel.service.dto.CommandeBulkResultDTO;
+import com.sonatel.service.dto.CommandeCursor;
 import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.dto.CommandeMultiGetDTO;
 import com.sonatel.service.mapper.CommandeMapper;
-import java.util.LinkedList;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * Service Implementation for managing {@link com.sonatel.domain.Commande}.
@@ -27,9 +51,36 @@ public class CommandeServiceImpl implements CommandeService {
 
     private final CommandeMapper commandeMapper;
 
-    public CommandeServiceImpl(CommandeRepository commandeRepository, CommandeMapper commandeMapper) {
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final SingleFlight<Long, Optional<CommandeDTO>> findOneFlight;
+
+    private final NegativeCache missingCommandes;
+
+    public CommandeServiceImpl(
+        CommandeRepository commandeRepository,
+        CommandeMapper commandeMapper,
+        EntityManager entityManager,
+        Validator validator,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        CacheManager cacheManager
+    ) {
         this.commandeRepository = commandeRepository;
         this.commandeMapper = commandeMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.findOneFlight = new SingleFlight<>("commande", meterRegistry);
+        this.missingCommandes = new NegativeCache(cacheManager.getCache(CacheNames.MISSING_COMMANDES), meterRegistry);
     }
 
     @Override
@@ -37,50 +88,256 @@ public class CommandeServiceImpl implements CommandeService {
         LOG.debug("Request to save Commande : {}", commandeDTO);
         Commande commande = commandeMapper.toEntity(commandeDTO);
         commande = commandeRepository.save(commande);
+        missingCommandes.invalidate(idKey(commande.getId()), referentielKey(commande.getReferentiel()));
         return commandeMapper.toDto(commande);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CommandeBulkResultDTO saveAll(List<CommandeDTO> commandeDTOs) {
+        LOG.debug("Request to save {} Commandes in bulk", commandeDTOs.size());
+        CommandeBulkResultDTO result = new CommandeBulkResultDTO();
+        List<Integer> accepted = new ArrayList<>(commandeDTOs.size());
+        Set<String> referentiels = new HashSet<>();
+        for (int index = 0; index < commandeDTOs.size(); index++) {
+            CommandeDTO commandeDTO = commandeDTOs.get(index);
+            String error = validate(commandeDTO);
+            if (error == null && !referentiels.add(commandeDTO.getReferentiel())) {
+                error = "referentielduplicate";
+            }
+            if (error == null) {
+                accepted.add(index);
+            } else {
+                result.add(CommandeBulkResultDTO.Item.rejected(index, commandeDTO.getReferentiel(), error));
+            }
+        }
+
+        int chunkSize = applicationProperties.getBulk().getChunkSize();
+        for (int start = 0; start < accepted.size(); start += chunkSize) {
+            List<Integer> chunk = accepted.subList(start, Math.min(start + chunkSize, accepted.size()));
+            try {
+                result.addAll(transactionTemplate.execute(status -> saveChunk(commandeDTOs, chunk)));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer took one of the referentiels after the check: isolate the offending rows
+                LOG.debug("Bulk chunk failed, retrying its {} Commandes one by one", chunk.size(), e);
+                for (Integer index : chunk) {
+                    try {
+                        result.addAll(transactionTemplate.execute(status -> saveChunk(commandeDTOs, List.of(index))));
+                    } catch (DataIntegrityViolationException ex) {
+                        String referentiel = commandeDTOs.get(index).getReferentiel();
+                        result.add(CommandeBulkResultDTO.Item.rejected(index, referentiel, "referentielexists"));
+                    }
+                }
+            }
+        }
+        if (result.getCreated() > 0) {
+            // Every chunk is committed already; one clear is cheaper than an eviction per new commande
+            missingCommandes.invalidateAll();
+        }
+        result.sortItems();
+        return result;
+    }
+
+    private String validate(CommandeDTO commandeDTO) {
+        if (commandeDTO == null) {
+            return "invalid";
+        }
+        if (commandeDTO.getId() != null) {
+            return "idexists";
+        }
+        Set<ConstraintViolation<CommandeDTO>> violations = validator.validate(commandeDTO);
+        if (!violations.isEmpty()) {
+            return "invalid." + violations.iterator().next().getPropertyPath();
+        }
+        return null;
+    }
+
+    /**
+     * Persist one chunk in the current transaction, then flush it as JDBC batches and empty the persistence context.
+     */
+    private List<CommandeBulkResultDTO.Item> saveChunk(List<CommandeDTO> commandeDTOs, List<Integer> chunk) {
+        List<String> referentiels = chunk.stream().map(index -> commandeDTOs.get(index).getReferentiel()).toList();
+        Set<String> existing = commandeRepository.findExistingReferentiels(referentiels);
+        List<CommandeBulkResultDTO.Item> items = new ArrayList<>(chunk.size());
+        List<Commande> persisted = new ArrayList<>(chunk.size());
+        List<Integer> persistedIndexes = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            CommandeDTO commandeDTO = commandeDTOs.get(index);
+            if (existing.contains(commandeDTO.getReferentiel())) {
+                items.add(CommandeBulkResultDTO.Item.rejected(index, commandeDTO.getReferentiel(), "referentielexists"));
+            } else {
+                persisted.add(commandeRepository.save(commandeMapper.toEntity(commandeDTO)));
+                persistedIndexes.add(index);
+            }
+        }
+        commandeRepository.flush();
+        entityManager.clear();
+        for (int i = 0; i < persisted.size(); i++) {
+            Commande commande = persisted.get(i);
+            items.add(CommandeBulkResultDTO.Item.created(persistedIndexes.get(i), commande.getId(), commande.getReferentiel()));
+        }
+        return items;
+    }
 
     @Override
-    public CommandeDTO update(CommandeDTO commandeDTO) {
+    public Optional<CommandeDTO> update(CommandeDTO commandeDTO) {
         LOG.debug("Request to update Commande : {}", commandeDTO);
         Commande commande = commandeMapper.toEntity(commandeDTO);
-        commande = commandeRepository.save(commande);
-        return commandeMapper.toDto(commande);
+        Optional<Long> version = commandeRepository.updateById(commande);
+        if (version.isEmpty()) {
+            return Optional.empty();
+        }
+        missingCommandes.invalidate(referentielKey(commande.getReferentiel()));
+        // Every other column was written from the request, so the response needs no read back
+        commande.setVersion(version.orElseThrow());
+        return Optional.of(commandeMapper.toDto(commande));
     }
 
     @Override
     public Optional<CommandeDTO> partialUpdate(CommandeDTO commandeDTO) {
         LOG.debug("Request to partially update Commande : {}", commandeDTO);
-
-        return commandeRepository
-            .findById(commandeDTO.getId())
-            .map(existingCommande -> {
-                commandeMapper.partialUpdate(existingCommande, commandeDTO);
-
-                return existingCommande;
-            })
-            .map(commandeRepository::save)
-            .map(commandeMapper::toDto);
+        if (commandeDTO.getReferentiel() != null) {
+            missingCommandes.invalidate(referentielKey(commandeDTO.getReferentiel()));
+        }
+        // Null fields of the DTO are left out of the UPDATE
+        return commandeRepository.patchById(commandeMapper.toEntity(commandeDTO)).map(commandeMapper::toDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<CommandeDTO> findAll() {
-        LOG.debug("Request to get all Commandes");
-        return commandeRepository.findAll().stream().map(commandeMapper::toDto).collect(Collectors.toCollection(LinkedList::new));
+    public long export(Instant from, Instant to, Consumer<CommandeDTO> sink) {
+        LOG.debug("Request to export Commandes from {} to {}", from, to);
+        long count = 0;
+        // Projected rows never enter the persistence context, so memory stays flat whatever the result size
+        try (Stream<CommandeProjection> commandes = commandeRepository.streamProjections(from, to)) {
+            for (CommandeProjection commande : (Iterable<CommandeProjection>) commandes::iterator) {
+                sink.accept(commandeMapper.toDto(commande));
+                count++;
+            }
+        }
+        return count;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<CommandeDTO> findOne(Long id) {
         LOG.debug("Request to get Commande : {}", id);
-        return commandeRepository.findById(id).map(commandeMapper::toDto);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The caller may expect to see its own uncommitted changes, which another caller's load would not
+            return commandeRepository.findById(id).map(commandeMapper::toDto);
+        }
+        if (missingCommandes.isMissing(idKey(id))) {
+            return Optional.empty();
+        }
+        // Concurrent misses on the same id, typically right after its cache entry expired, share one database read;
+        // the waiters hold no connection as the loader opens the transaction, read-write so that it reads the primary
+        return findOneFlight.load(id, () -> {
+            Optional<CommandeDTO> commandeDTO = transactionTemplate.execute(status ->
+                commandeRepository.findById(id).map(commandeMapper::toDto)
+            );
+            if (commandeDTO.isEmpty()) {
+                missingCommandes.markMissing(idKey(id));
+            }
+            return commandeDTO;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Optional<Long> findVersion(Long id) {
+        LOG.debug("Request to get the version of Commande : {}", id);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return commandeRepository.findById(id).map(Commande::getVersion);
+        }
+        if (missingCommandes.isMissing(idKey(id))) {
+            return Optional.empty();
+        }
+        Optional<Long> cachedVersion = commandeRepository.findCachedVersion(id);
+        if (cachedVersion.isPresent()) {
+            return cachedVersion;
+        }
+        // Puts the entity in the second-level cache for the next lookups, so read from the primary
+        Optional<Long> version = transactionTemplate.execute(status -> commandeRepository.findById(id).map(Commande::getVersion));
+        if (version.isEmpty()) {
+            missingCommandes.markMissing(idKey(id));
+        }
+        return version;
     }
 
     @Override
-    public void delete(Long id) {
+    public CommandeMultiGetDTO findAllById(List<Long> ids) {
+        LOG.debug("Request to get Commandes : {}", ids);
+        // Not read-only, so not routed to a replica: the entities read go to the shared second-level cache
+        List<Commande> commandes = commandeRepository.findAllByIdInOrder(ids);
+        CommandeMultiGetDTO result = new CommandeMultiGetDTO();
+        for (int i = 0; i < ids.size(); i++) {
+            Commande commande = commandes.get(i);
+            if (commande == null) {
+                result.getMissingIds().add(ids.get(i));
+            } else {
+                result.getCommandes().add(commandeMapper.toDto(commande));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Upserted upsertByReferentiel(CommandeDTO commandeDTO) {
+        LOG.debug("Request to upsert Commande by referentiel : {}", commandeDTO);
+        Commande commande = commandeMapper.toEntity(commandeDTO);
+        CommandeRepositoryWithUpsert.Upsert upsert = commandeRepository.upsertByReferentiel(commande);
+        if (upsert.created()) {
+            missingCommandes.invalidate(idKey(upsert.id()), referentielKey(commande.getReferentiel()));
+        }
+        // Every column was written from the request and the call returns the stored version, so the response needs no read back
+        commande.id(upsert.id()).version(upsert.version());
+        return new Upserted(commandeMapper.toDto(commande), upsert.created());
+    }
+
+    @Override
+    public Optional<CommandeDTO> findOneByReferentiel(String referentiel) {
+        LOG.debug("Request to get Commande by referentiel : {}", referentiel);
+        // Not read-only, so not routed to a replica: the natural id and the entity go to the shared second-level cache
+        if (missingCommandes.isMissing(referentielKey(referentiel))) {
+            return Optional.empty();
+        }
+        Optional<CommandeDTO> commandeDTO = commandeRepository.findOneByReferentiel(referentiel).map(commandeMapper::toDto);
+        if (commandeDTO.isEmpty()) {
+            missingCommandes.markMissing(referentielKey(referentiel));
+        }
+        return commandeDTO;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CommandeDTO> findHistoryByUserId(String userId, CommandeCursor after, int size) {
+        LOG.debug("Request to get the Commandes of user : {}, after: {}, size: {}", userId, after, size);
+        List<CommandeProjection> projections = after == null
+            ? commandeRepository.findHistoryByUserId(userId, Limit.of(size))
+            : commandeRepository.findHistoryByUserIdAfter(userId, after.getDateCommande(), after.getId(), Limit.of(size));
+        return projections.stream().map(commandeMapper::toDto).toList();
+    }
+
+    private static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    private static String referentielKey(String referentiel) {
+        return "referentiel:" + referentiel;
+    }
+
+    @Override
+    public Optional<Long> delete(Long id) {
         LOG.debug("Request to delete Commande : {}", id);
-        commandeRepository.deleteById(id);
+        Optional<Commande> commande = commandeRepository.findById(id);
+        commande.ifPresent(commandeRepository::delete);
+        return commande.map(Commande::getVersion);
+    }
+
+    @EventListener
+    public void onCommandesExpired(CommandesExpired event) {
+        // The commandes left with their partition, behind the back of the invalidations above: start over from the database
+        missingCommandes.invalidateAll();
+        entityManager.getEntityManagerFactory().getCache().evict(Commande.class);
     }
 }
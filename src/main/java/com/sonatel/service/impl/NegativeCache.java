@@ -0,0 +1,70 @@
+package com.sonatel.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers the keys a lookup found nothing for, so repeated lookups of unknown keys skip the database until the
+ * entries expire (see the time-to-live of the backing cache) or are invalidated by a write.
+ * <p>
+ * Lookups answered from here are counted in {@value #HITS_METER_NAME}: each is a database query avoided.
+ */
+class NegativeCache {
+
+    static final String HITS_METER_NAME = "cache.negative.hits";
+
+    private final Cache cache;
+
+    private final Counter hits;
+
+    NegativeCache(Cache cache, MeterRegistry registry) {
+        this.cache = cache;
+        this.hits = Counter.builder(HITS_METER_NAME)
+            .description("Lookups answered as not found without querying the database")
+            .tag("cache", cache.getName())
+            .register(registry);
+    }
+
+    boolean isMissing(Object key) {
+        if (cache.get(key) != null) {
+            hits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    void markMissing(Object key) {
+        cache.put(key, Boolean.TRUE);
+    }
+
+    /**
+     * Forget the given keys, now and again after the current transaction commits, so a lookup racing with the write
+     * cannot leave them marked missing.
+     */
+    void invalidate(Object... keys) {
+        evict(keys);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        evict(keys);
+                    }
+                }
+            );
+        }
+    }
+
+    void invalidateAll() {
+        cache.clear();
+    }
+
+    private void evict(Object... keys) {
+        for (Object key : keys) {
+            cache.evict(key);
+        }
+    }
+}
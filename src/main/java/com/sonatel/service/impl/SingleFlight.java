@@ -0,0 +1,70 @@
+package com.sonatel.service.impl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same key on this node: the first caller runs the loader, the others wait for its
+ * result instead of running their own. Results are not kept once the load completes.
+ * <p>
+ * Loads are counted in {@value #LOADS_METER_NAME}, tagged {@code result=loaded} for the ones that ran the loader and
+ * {@code result=coalesced} for the ones that waited on another.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the loaded values, shared by all the coalesced callers.
+ */
+class SingleFlight<K, V> {
+
+    static final String LOADS_METER_NAME = "cache.single-flight.loads";
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter loaded;
+
+    private final Counter coalesced;
+
+    SingleFlight(String name, MeterRegistry registry) {
+        this.loaded = Counter.builder(LOADS_METER_NAME)
+            .description("Cache miss loads, run or coalesced into a concurrent one")
+            .tag("name", name)
+            .tag("result", "loaded")
+            .register(registry);
+        this.coalesced = Counter.builder(LOADS_METER_NAME)
+            .description("Cache miss loads, run or coalesced into a concurrent one")
+            .tag("name", name)
+            .tag("result", "coalesced")
+            .register(registry);
+    }
+
+    V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        loaded.increment();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.sonatel.service.mapper;
 
 import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeProjection;
 import com.sonatel.service.dto.CommandeDTO;
 import org.mapstruct.*;
 
 /**
- * Mapper for the entity {@link Commande} and its DTO {@link CommandeDTO}.
+ * Mapper for the entity {@link Commande} and its DTO {@link CommandeDTO}, also built from a {@link CommandeProjection}.
  */
 @Mapper(componentModel = "spring")
-public interface CommandeMapper extends EntityMapper<CommandeDTO, Commande> {}
+public interface CommandeMapper extends EntityMapper<CommandeDTO, Commande> {
+    CommandeDTO toDto(CommandeProjection projection);
+}
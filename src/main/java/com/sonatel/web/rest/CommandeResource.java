@@ -1,21 +1,58 @@
 package com.sonatel.web.rest;
 
-import com.sonatel.repository.CommandeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.config.CacheNames;
+import com.sonatel.service.CommandePartitionService.CommandesExpired;
+import com.sonatel.service.CommandeQueryService;
 import com.sonatel.service.CommandeService;
+import com.sonatel.service.CommandeStatsService;
+import com.sonatel.service.IdempotencyService;
+import com.sonatel.service.IdempotencyService.IdempotencyKeyMismatchException;
+import com.sonatel.service.criteria.CommandeCriteria;
+import com.sonatel.service.dto.CommandeBulkResultDTO;
+import com.sonatel.service.dto.CommandeCursor;
+import com.sonatel.service.dto.CommandeDailyStatsDTO;
 import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.dto.CommandeMultiGetDTO;
 import com.sonatel.web.rest.errors.BadRequestAlertException;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -30,44 +67,144 @@ public class CommandeResource {
 
     private static final String ENTITY_NAME = "commandesCommande";
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SORT_UNSUPPORTED =
+        "Not supported, the request is rejected if given: commandes are ordered newest first, by date then id";
+
+    private static final int MAX_MULTI_GET_SIZE = 200;
+
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
+    private static final int DEFAULT_STATS_DAYS = 30;
+
+    private static final int MAX_STATS_DAYS = 366;
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final CommandeService commandeService;
 
-    private final CommandeRepository commandeRepository;
+    private final CommandeQueryService commandeQueryService;
+
+    private final CommandeStatsService commandeStatsService;
+
+    private final IdempotencyService idempotencyService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectWriter ndjsonWriter;
+
+    private final ObjectWriter commandeWriter;
+
+    private final Cache commandeJsonCache;
 
-    public CommandeResource(CommandeService commandeService, CommandeRepository commandeRepository) {
+    public CommandeResource(
+        CommandeService commandeService,
+        CommandeQueryService commandeQueryService,
+        CommandeStatsService commandeStatsService,
+        IdempotencyService idempotencyService,
+        ApplicationProperties applicationProperties,
+        ObjectMapper objectMapper,
+        CacheManager cacheManager
+    ) {
         this.commandeService = commandeService;
-        this.commandeRepository = commandeRepository;
+        this.commandeQueryService = commandeQueryService;
+        this.commandeStatsService = commandeStatsService;
+        this.idempotencyService = idempotencyService;
+        this.applicationProperties = applicationProperties;
+        this.ndjsonWriter = objectMapper
+            .writer()
+            .withRootValueSeparator((String) null)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.commandeWriter = objectMapper.writerFor(CommandeDTO.class);
+        this.commandeJsonCache = cacheManager.getCache(CacheNames.COMMANDE_JSON);
+    }
+
+    @EventListener
+    public void onCommandesExpired(CommandesExpired event) {
+        // Their versions are not found any more, so their entries are unreachable: free them without waiting for the time-to-live
+        commandeJsonCache.clear();
     }
 
     /**
      * {@code POST  /commandes} : Create a new commande.
+     * <p>
+     * With an {@code Idempotency-Key} header, a retry of the same request gets the original response back without
+     * creating the commande again.
      *
+     * @param idempotencyKey the client supplied idempotency key, if any.
      * @param commandeDTO the commandeDTO to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new commandeDTO, or with status {@code 400 (Bad Request)} if the commande has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new commandeDTO, or with status {@code 400 (Bad Request)} if the commande has already an ID
+     * or if the idempotency key was already used for another commande.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
-    public ResponseEntity<CommandeDTO> createCommande(@Valid @RequestBody CommandeDTO commandeDTO) throws URISyntaxException {
+    public ResponseEntity<CommandeDTO> createCommande(
+        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+        @Valid @RequestBody CommandeDTO commandeDTO
+    ) throws URISyntaxException {
         LOG.debug("REST request to save Commande : {}", commandeDTO);
         if (commandeDTO.getId() != null) {
             throw new BadRequestAlertException("A new commande cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        commandeDTO = commandeService.save(commandeDTO);
+        if (idempotencyKey == null) {
+            commandeDTO = commandeService.save(commandeDTO);
+        } else {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+                throw new BadRequestAlertException("Invalid Idempotency-Key", ENTITY_NAME, "idempotencykeyinvalid");
+            }
+            CommandeDTO toSave = commandeDTO;
+            try {
+                commandeDTO = idempotencyService.execute(idempotencyKey, fingerprint(commandeDTO), () -> commandeService.save(toSave));
+            } catch (IdempotencyKeyMismatchException e) {
+                throw new BadRequestAlertException(
+                    "Idempotency-Key already used for another commande",
+                    ENTITY_NAME,
+                    "idempotencykeyreused"
+                );
+            }
+        }
         return ResponseEntity.created(new URI("/api/commandes/" + commandeDTO.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, commandeDTO.getId().toString()))
             .body(commandeDTO);
     }
 
+    private static String fingerprint(CommandeDTO commandeDTO) {
+        return commandeDTO.getReferentiel() + '|' + commandeDTO.getUserId() + '|' + commandeDTO.getDateCommande();
+    }
+
+    /**
+     * {@code POST  /commandes/_bulk} : Create many new commandes.
+     * <p>
+     * Commandes are committed in chunks of {@code application.bulk.chunk-size}; an invalid commande, or one whose
+     * referentiel is already used, is rejected without failing the others.
+     *
+     * @param commandeDTOs the commandeDTOs to create.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the outcome of each commandeDTO,
+     * or with status {@code 400 (Bad Request)} if there are more commandes than {@code application.bulk.max-items}.
+     */
+    @PostMapping("/_bulk")
+    public ResponseEntity<CommandeBulkResultDTO> createCommandes(@NotNull @RequestBody List<CommandeDTO> commandeDTOs) {
+        LOG.debug("REST request to save {} Commandes in bulk", commandeDTOs.size());
+        if (commandeDTOs.size() > applicationProperties.getBulk().getMaxItems()) {
+            throw new BadRequestAlertException("Too many commandes", ENTITY_NAME, "bulktoolarge");
+        }
+        return ResponseEntity.ok(commandeService.saveAll(commandeDTOs));
+    }
+
     /**
      * {@code PUT  /commandes/:id} : Updates an existing commande.
      *
      * @param id the id of the commandeDTO to save.
      * @param commandeDTO the commandeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated commandeDTO,
-     * or with status {@code 400 (Bad Request)} if the commandeDTO is not valid,
+     * or with status {@code 400 (Bad Request)} if the commandeDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the commandeDTO version is stale,
      * or with status {@code 500 (Internal Server Error)} if the commandeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -84,11 +221,10 @@ public class CommandeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!commandeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
-        commandeDTO = commandeService.update(commandeDTO);
+        commandeDTO = commandeService
+            .update(commandeDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        evictReplacedJson(commandeDTO);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, commandeDTO.getId().toString()))
             .body(commandeDTO);
@@ -100,8 +236,8 @@ public class CommandeResource {
      * @param id the id of the commandeDTO to save.
      * @param commandeDTO the commandeDTO to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated commandeDTO,
-     * or with status {@code 400 (Bad Request)} if the commandeDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the commandeDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the commandeDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the commandeDTO version is stale,
      * or with status {@code 500 (Internal Server Error)} if the commandeDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -118,42 +254,345 @@ public class CommandeResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!commandeRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        CommandeDTO result = commandeService
+            .partialUpdate(commandeDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        evictReplacedJson(result);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /commandes} : get a page of the commandes matching the criteria, newest first.
+     * <p>
+     * Pages are addressed by keyset: when more results exist, the {@code Link} header carries a {@code next}
+     * relation whose {@code cursor} parameter continues after the last commande of this page. The keyset fixes the
+     * order, so a {@code sort} parameter is rejected.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param cursor the continuation token returned by the previous page, if any.
+     * @param size the page size, capped at {@value #MAX_PAGE_SIZE}.
+     * @param sort not supported.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of commandes in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid or a sort is given.
+     */
+    @GetMapping("")
+    public ResponseEntity<List<CommandeDTO>> getAllCommandes(
+        CommandeCriteria criteria,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+        @Parameter(description = SORT_UNSUPPORTED) @RequestParam(value = "sort", required = false) List<String> sort
+    ) {
+        LOG.debug("REST request to get Commandes by criteria: {}, after: {}", criteria, cursor);
+        rejectSort(sort);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        // One extra row tells whether a next page exists without a count query
+        List<CommandeDTO> page = commandeQueryService.findByCriteria(criteria, decodeCursor(cursor), pageSize + 1);
+        return keysetPage(page, pageSize);
+    }
+
+    /**
+     * {@code GET  /commandes/user/:userId} : get a page of the commandes of a user, newest first.
+     * <p>
+     * Pages are addressed by keyset, as for {@link #getAllCommandes}, which rejects a {@code sort} parameter likewise.
+     * The commandes are read from a covering index and projected straight into DTOs.
+     *
+     * @param userId the user of the commandes.
+     * @param cursor the continuation token returned by the previous page, if any.
+     * @param size the page size, capped at {@value #MAX_PAGE_SIZE}.
+     * @param sort not supported.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of commandes in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid or a sort is given.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<CommandeDTO>> getCommandesOfUser(
+        @PathVariable("userId") String userId,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "size", defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+        @Parameter(description = SORT_UNSUPPORTED) @RequestParam(value = "sort", required = false) List<String> sort
+    ) {
+        LOG.debug("REST request to get the Commandes of user : {}, after: {}", userId, cursor);
+        rejectSort(sort);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<CommandeDTO> page = commandeService.findHistoryByUserId(userId, decodeCursor(cursor), pageSize + 1);
+        return keysetPage(page, pageSize);
+    }
+
+    private static void rejectSort(List<String> sort) {
+        if (sort != null) {
+            throw new BadRequestAlertException("Sort not supported", ENTITY_NAME, "sortunsupported");
         }
+    }
 
-        Optional<CommandeDTO> result = commandeService.partialUpdate(commandeDTO);
+    private static CommandeCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return CommandeCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", ENTITY_NAME, "cursorinvalid");
+        }
+    }
 
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, commandeDTO.getId().toString())
-        );
+    /**
+     * Trim the extra row fetched beyond {@code pageSize} and, when there was one, link the next page.
+     */
+    private static ResponseEntity<List<CommandeDTO>> keysetPage(List<CommandeDTO> page, int pageSize) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", CommandeCursor.of(page.get(pageSize - 1)).encode())
+                .replaceQueryParam("size", pageSize)
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ResponseEntity.ok().headers(headers).body(page);
     }
 
     /**
-     * {@code GET  /commandes} : get all the commandes.
+     * {@code GET  /commandes/stats} : get the number of commandes per day, in UTC, of every user or of one.
+     * <p>
+     * Counts come from daily rollups, so the cost depends on the number of days rather than of commandes.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of commandes in body.
+     * @param userId the user of the commandes, if any.
+     * @param from the first day, {@value #DEFAULT_STATS_DAYS} days before {@code to} by default.
+     * @param to the last day, included, today by default.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the counts of the days having commandes in body,
+     * or with status {@code 400 (Bad Request)} if the range is reversed or longer than {@value #MAX_STATS_DAYS} days.
      */
-    @GetMapping("")
-    public List<CommandeDTO> getAllCommandes() {
-        LOG.debug("REST request to get all Commandes");
-        return commandeService.findAll();
+    @GetMapping("/stats")
+    public ResponseEntity<List<CommandeDailyStatsDTO>> getCommandeStats(
+        @RequestParam(value = "userId", required = false) String userId,
+        @RequestParam(value = "from", required = false) LocalDate from,
+        @RequestParam(value = "to", required = false) LocalDate to
+    ) {
+        LOG.debug("REST request to get the daily Commande counts of user {} from {} to {}", userId, from, to);
+        LocalDate last = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_STATS_DAYS - 1);
+        if (first.isAfter(last) || ChronoUnit.DAYS.between(first, last) >= MAX_STATS_DAYS) {
+            throw new BadRequestAlertException("Invalid stats range", ENTITY_NAME, "statsrangeinvalid");
+        }
+        return ResponseEntity.ok(commandeStatsService.findDaily(userId, first, last));
+    }
+
+    /**
+     * {@code GET  /commandes/export} : stream the commandes, oldest first, as NDJSON or CSV.
+     * <p>
+     * Rows are written as they are read from the database, so memory use does not depend on the result size.
+     *
+     * @param format the output format, {@code ndjson} or {@code csv}.
+     * @param from the inclusive lower bound on dateCommande, if any.
+     * @param to the exclusive upper bound on dateCommande, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the streamed commandes in body,
+     * or with status {@code 400 (Bad Request)} if the format is not supported.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCommandes(
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        @RequestParam(value = "from", required = false) Instant from,
+        @RequestParam(value = "to", required = false) Instant to
+    ) {
+        LOG.debug("REST request to export Commandes as {} from {} to {}", format, from, to);
+        StreamingResponseBody body;
+        MediaType contentType;
+        switch (format) {
+            case "ndjson" -> {
+                contentType = MediaType.APPLICATION_NDJSON;
+                body = out -> exportAsNdjson(out, from, to);
+            }
+            case "csv" -> {
+                contentType = TEXT_CSV;
+                body = out -> exportAsCsv(out, from, to);
+            }
+            default -> throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private void exportAsNdjson(OutputStream out, Instant from, Instant to) throws IOException {
+        try (JsonGenerator generator = ndjsonWriter.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long count = commandeService.export(from, to, commandeDTO -> {
+                try {
+                    ndjsonWriter.writeValue(generator, commandeDTO);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOG.debug("Exported {} Commandes as NDJSON", count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void exportAsCsv(OutputStream out, Instant from, Instant to) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,referentiel,userId,dateCommande\n");
+        try {
+            long count = commandeService.export(from, to, commandeDTO -> {
+                try {
+                    writer
+                        .append(String.valueOf(commandeDTO.getId()))
+                        .append(',')
+                        .append(csvField(commandeDTO.getReferentiel()))
+                        .append(',')
+                        .append(csvField(commandeDTO.getUserId()))
+                        .append(',')
+                        .append(String.valueOf(commandeDTO.getDateCommande()))
+                        .append('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOG.debug("Exported {} Commandes as CSV", count);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     /**
      * {@code GET  /commandes/:id} : get the "id" commande.
+     * <p>
+     * The serialized response is cached by id and version, so repeated reads of an unchanged commande skip both the
+     * mapping and the serialization. The version is looked up first, from the second-level cache entry of the commande
+     * when it has one. A write on any node changes that version, which leaves the previous response unreachable; the
+     * writes of this resource also evict it, the others leave it to expire.
      *
      * @param id the id of the commandeDTO to retrieve.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the commandeDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CommandeDTO> getCommande(@PathVariable("id") Long id) {
+    @ApiResponse(
+        responseCode = "200",
+        description = "OK",
+        content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = CommandeDTO.class))
+    )
+    public ResponseEntity<byte[]> getCommande(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Commande : {}", id);
-        Optional<CommandeDTO> commandeDTO = commandeService.findOne(id);
+        Optional<Long> version = commandeService.findVersion(id);
+        if (version.isEmpty()) {
+            return ResponseUtil.wrapOrNotFound(Optional.empty());
+        }
+        byte[] json = commandeJsonCache.get(jsonCacheKey(id, version.orElseThrow()), byte[].class);
+        if (json == null) {
+            Optional<CommandeDTO> commandeDTO = commandeService.findOne(id);
+            if (commandeDTO.isEmpty()) {
+                return ResponseUtil.wrapOrNotFound(Optional.empty());
+            }
+            json = toJson(commandeDTO.orElseThrow());
+            // Under the version actually serialized, which a concurrent write may have made newer than the one looked up
+            commandeJsonCache.put(jsonCacheKey(id, commandeDTO.orElseThrow().getVersion()), json);
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+
+    /**
+     * Key of the JSON response of a commande in the {@value CacheNames#COMMANDE_JSON} cache.
+     *
+     * @param id the id of the commande.
+     * @param version the version of the commande.
+     * @return the cache key.
+     */
+    public static String jsonCacheKey(Long id, Long version) {
+        return id + ":" + version;
+    }
+
+    /**
+     * Evict the response of the version an update replaced, once committed.
+     */
+    private void evictReplacedJson(CommandeDTO commandeDTO) {
+        commandeJsonCache.evict(jsonCacheKey(commandeDTO.getId(), commandeDTO.getVersion() - 1));
+    }
+
+    private byte[] toJson(CommandeDTO commandeDTO) {
+        try {
+            return commandeWriter.writeValueAsBytes(commandeDTO);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@code POST  /commandes/_mget} : get several commandes by id in one request.
+     *
+     * @param ids the ids of the commandes to retrieve, at most {@value #MAX_MULTI_GET_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the commandes found, in request order,
+     * and the ids not found, or with status {@code 400 (Bad Request)} if the ids are not valid.
+     */
+    @PostMapping("/_mget")
+    public ResponseEntity<CommandeMultiGetDTO> getCommandes(@NotNull @RequestBody List<Long> ids) {
+        LOG.debug("REST request to get Commandes : {}", ids);
+        if (ids.size() > MAX_MULTI_GET_SIZE) {
+            throw new BadRequestAlertException("Too many ids", ENTITY_NAME, "idstoomany");
+        }
+        if (ids.contains(null)) {
+            throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
+        }
+        return ResponseEntity.ok(commandeService.findAllById(ids));
+    }
+
+    /**
+     * {@code GET  /commandes/by-referentiel/:referentiel} : get the commande by its unique "referentiel".
+     *
+     * @param referentiel the referentiel of the commandeDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the commandeDTO, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/by-referentiel/{referentiel}")
+    public ResponseEntity<CommandeDTO> getCommandeByReferentiel(@PathVariable("referentiel") String referentiel) {
+        LOG.debug("REST request to get Commande by referentiel : {}", referentiel);
+        Optional<CommandeDTO> commandeDTO = commandeService.findOneByReferentiel(referentiel);
         return ResponseUtil.wrapOrNotFound(commandeDTO);
     }
 
+    /**
+     * {@code PUT  /commandes/by-referentiel/:referentiel} : Creates or updates the commande of the given "referentiel".
+     *
+     * @param referentiel the referentiel of the commandeDTO to write.
+     * @param commandeDTO the commandeDTO to write.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} if the commande was created, or with status {@code 200 (OK)}
+     * if it was updated, and with body the commandeDTO, or with status {@code 400 (Bad Request)} if the commandeDTO is not valid.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PutMapping("/by-referentiel/{referentiel}")
+    public ResponseEntity<CommandeDTO> upsertCommandeByReferentiel(
+        @PathVariable("referentiel") String referentiel,
+        @Valid @RequestBody CommandeDTO commandeDTO
+    ) throws URISyntaxException {
+        LOG.debug("REST request to upsert Commande : {}, {}", referentiel, commandeDTO);
+        if (commandeDTO.getId() != null) {
+            throw new BadRequestAlertException("The id of a commande is assigned on creation", ENTITY_NAME, "idexists");
+        }
+        if (!Objects.equals(referentiel, commandeDTO.getReferentiel())) {
+            throw new BadRequestAlertException("Invalid referentiel", ENTITY_NAME, "referentielinvalid");
+        }
+
+        CommandeService.Upserted upserted = commandeService.upsertByReferentiel(commandeDTO);
+        CommandeDTO result = upserted.commande();
+        if (upserted.created()) {
+            return ResponseEntity.created(new URI("/api/commandes/" + result.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+                .body(result);
+        }
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
     /**
      * {@code DELETE  /commandes/:id} : delete the "id" commande.
      *
@@ -163,7 +602,7 @@ public class CommandeResource {
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCommande(@PathVariable("id") Long id) {
         LOG.debug("REST request to delete Commande : {}", id);
-        commandeService.delete(id);
+        commandeService.delete(id).ifPresent(version -> commandeJsonCache.evict(jsonCacheKey(id, version)));
         return ResponseEntity.noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id.toString()))
             .build();
@@ -0,0 +1,122 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.hazelcast.client.HazelcastClient;
+import com.hazelcast.client.impl.clientside.HazelcastClientProxy;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.hibernate.CacheEnvironment;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.core.env.Environment;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * {@link CacheConfiguration} connected as a client to a separate Hazelcast member.
+ */
+class CacheConfigurationClientModeTest {
+
+    private static HazelcastInstance member;
+
+    private CacheConfiguration cacheConfiguration;
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeAll
+    static void startMember() {
+        Config config = new Config();
+        config.setClusterName("client-mode-test-" + UUID.randomUUID());
+        config.setProperty("hazelcast.wait.seconds.before.join", "0");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        member = Hazelcast.newHazelcastInstance(config);
+    }
+
+    @AfterAll
+    static void stopMember() {
+        member.shutdown();
+    }
+
+    @BeforeEach
+    public void setup() {
+        cacheConfiguration = new CacheConfiguration(mock(Environment.class), new ServerProperties(), mock(DiscoveryClient.class));
+        jHipsterProperties = new JHipsterProperties();
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Client client = applicationProperties.getCache().getClient();
+        client.setEnabled(true);
+        client.setClusterName(member.getConfig().getClusterName());
+        client.setAddresses(List.of(member.getCluster().getLocalMember().getSocketAddress().getHostString() + ":" + port()));
+    }
+
+    @AfterEach
+    public void teardown() {
+        HazelcastClient.shutdownAll();
+    }
+
+    private static int port() {
+        return member.getCluster().getLocalMember().getSocketAddress().getPort();
+    }
+
+    @Test
+    void testHazelcastInstanceIsAClient() {
+        HazelcastInstance hazelcastInstance = cacheConfiguration.hazelcastInstance(jHipsterProperties, applicationProperties);
+
+        assertThat(hazelcastInstance).isInstanceOf(HazelcastClientProxy.class);
+        assertThat(hazelcastInstance.getName()).isEqualTo("commandes");
+        assertThat(cacheConfiguration.hazelcastInstance(jHipsterProperties, applicationProperties)).isSameAs(hazelcastInstance);
+        // Every second-level cache read of a client goes to a member, so its domain maps are near cached
+        assertThat(((HazelcastClientProxy) hazelcastInstance).getClientConfig().getNearCacheConfig("com.sonatel.domain.Commande"))
+            .isNotNull();
+    }
+
+    @Test
+    void testMapConfigsAreAddedToTheCluster() {
+        cacheConfiguration.hazelcastInstance(jHipsterProperties, applicationProperties);
+
+        assertThat(member.getConfig().getMapConfig(CacheNames.IDEMPOTENCY_KEYS).getTimeToLiveSeconds()).isEqualTo(
+            applicationProperties.getIdempotency().getTimeToLiveSeconds()
+        );
+        assertThat(member.getConfig().getMapConfig(CacheNames.MISSING_COMMANDES).getBackupCount()).isZero();
+    }
+
+    @Test
+    void testHibernateUsesTheClient() {
+        HazelcastInstance hazelcastInstance = cacheConfiguration.hazelcastInstance(jHipsterProperties, applicationProperties);
+        Map<String, Object> hibernateProperties = new HashMap<>();
+
+        cacheConfiguration.hazelcastHibernatePropertiesCustomizer(hazelcastInstance, applicationProperties).customize(hibernateProperties);
+
+        assertThat(hibernateProperties)
+            .containsEntry(CacheEnvironment.USE_NATIVE_CLIENT, "true")
+            .containsEntry(CacheEnvironment.NATIVE_CLIENT_INSTANCE_NAME, "commandes");
+    }
+
+    @Test
+    void testCacheManagerStoresInTheCluster() {
+        HazelcastInstance hazelcastInstance = cacheConfiguration.hazelcastInstance(jHipsterProperties, applicationProperties);
+        CacheManager cacheManager = cacheConfiguration.cacheManager(hazelcastInstance, applicationProperties, new SimpleMeterRegistry());
+        Cache cache = cacheManager.getCache("client-mode-test");
+
+        cache.put("key", "value");
+
+        assertThat(member.getMap("client-mode-test").get("key")).isEqualTo("value");
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+    }
+}
@@ -0,0 +1,154 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.serialization.SerializationService;
+import com.hazelcast.spi.impl.SerializationServiceSupport;
+import com.sonatel.service.IdempotencyService.IdempotentResult;
+import com.sonatel.service.dto.CommandeDTO;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.cache.spi.entry.CacheEntry;
+import org.hibernate.cache.spi.entry.StructuredCacheEntry;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serialization of the cached types registered by {@link CacheConfiguration}, compared by serialized size with the
+ * Java serialization they used before.
+ */
+class CompactSerializationTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompactSerializationTest.class);
+
+    private static HazelcastInstance compactInstance;
+
+    private static HazelcastInstance javaInstance;
+
+    @BeforeAll
+    static void startMembers() {
+        Config compactConfig = memberConfig();
+        CacheConfiguration.initializeSerialization(compactConfig.getSerializationConfig());
+        compactInstance = Hazelcast.newHazelcastInstance(compactConfig);
+        javaInstance = Hazelcast.newHazelcastInstance(memberConfig());
+    }
+
+    @AfterAll
+    static void stopMembers() {
+        compactInstance.shutdown();
+        javaInstance.shutdown();
+    }
+
+    private static Config memberConfig() {
+        Config config = new Config();
+        config.setClusterName("compact-serialization-test-" + UUID.randomUUID());
+        config.setProperty("hazelcast.wait.seconds.before.join", "0");
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        config.getNetworkConfig().getJoin().getAutoDetectionConfig().setEnabled(false);
+        return config;
+    }
+
+    private static SerializationService serializationService(HazelcastInstance instance) {
+        return ((SerializationServiceSupport) instance).getSerializationService();
+    }
+
+    private static final String[] PROPERTY_NAMES = { "dateCommande", "referentiel", "userId", "version" };
+
+    // Structured cache entry of a com.sonatel.domain.Commande, as Hibernate puts it in the second-level cache
+    private static Map<?, ?> structuredCacheEntry() {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(PROPERTY_NAMES);
+        CacheEntry cacheEntry = mock(CacheEntry.class);
+        when(cacheEntry.getSubclass()).thenReturn("com.sonatel.domain.Commande");
+        when(cacheEntry.getVersion()).thenReturn(3L);
+        when(cacheEntry.getDisassembledState()).thenReturn(
+            new Serializable[] { Instant.parse("2026-10-18T10:15:30.123456Z"), "REF-2026-000123", "user-42", 3L }
+        );
+        return (Map<?, ?>) new StructuredCacheEntry(persister).structure(cacheEntry);
+    }
+
+    // The unstructured entry Hibernate reads back from it
+    private static CacheEntry cacheEntry() {
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        EntityPersister persister = sessionFactory
+            .getRuntimeMetamodels()
+            .getMappingMetamodel()
+            .getEntityDescriptor("com.sonatel.domain.Commande");
+        when(persister.getPropertyNames()).thenReturn(PROPERTY_NAMES);
+        return (CacheEntry) new StructuredCacheEntry(mock(EntityPersister.class)).destructure(structuredCacheEntry(), sessionFactory);
+    }
+
+    private static CommandeDTO commandeDTO() {
+        CommandeDTO commandeDTO = new CommandeDTO();
+        commandeDTO.setId(1234567L);
+        commandeDTO.setReferentiel("REF-2026-000123");
+        commandeDTO.setUserId("user-42");
+        commandeDTO.setDateCommande(Instant.parse("2026-10-18T10:15:30.123456Z"));
+        commandeDTO.setVersion(3L);
+        return commandeDTO;
+    }
+
+    @Test
+    void testCommandeDTORoundTrip() {
+        CommandeDTO commandeDTO = commandeDTO();
+        commandeDTO.setVersion(null);
+
+        SerializationService serializationService = serializationService(compactInstance);
+        CommandeDTO result = serializationService.toObject(serializationService.toData(commandeDTO));
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(commandeDTO);
+    }
+
+    @Test
+    void testIdempotentResultRoundTrip() {
+        IdempotentResult idempotentResult = new IdempotentResult("REF|user|date", commandeDTO());
+
+        SerializationService serializationService = serializationService(compactInstance);
+        IdempotentResult result = serializationService.toObject(serializationService.toData(idempotentResult));
+
+        assertThat(result.fingerprint()).isEqualTo(idempotentResult.fingerprint());
+        assertThat(result.result()).usingRecursiveComparison().isEqualTo(idempotentResult.result());
+    }
+
+    @Test
+    void testCacheEntryRoundTrip() {
+        Map<?, ?> cacheEntry = structuredCacheEntry();
+
+        SerializationService serializationService = serializationService(compactInstance);
+        Map<?, ?> result = serializationService.toObject(serializationService.toData(cacheEntry));
+
+        assertThat(result).isEqualTo(cacheEntry);
+    }
+
+    @Test
+    void commandeDTOIsSmallerThanWithJavaSerialization() {
+        CommandeDTO commandeDTO = commandeDTO();
+        int compactSize = serializationService(compactInstance).toData(commandeDTO).totalSize();
+        int javaSize = serializationService(javaInstance).toData(commandeDTO).totalSize();
+
+        LOG.info("CommandeDTO Compact: {} bytes; Java serialization: {} bytes", compactSize, javaSize);
+        assertThat(compactSize).isLessThan(javaSize);
+    }
+
+    @Test
+    void cacheEntryIsSmallerThanWithJavaSerialization() {
+        int structuredSize = serializationService(compactInstance).toData(structuredCacheEntry()).totalSize();
+        int javaSize = serializationService(javaInstance).toData(cacheEntry()).totalSize();
+
+        LOG.info("Commande structured cache entry: {} bytes; Java serialization: {} bytes", structuredSize, javaSize);
+        assertThat(structuredSize).isLessThan(javaSize);
+    }
+}
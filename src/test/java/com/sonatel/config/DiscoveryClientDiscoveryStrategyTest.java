@@ -0,0 +1,128 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.cluster.Address;
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.discovery.DiscoveryNode;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+class DiscoveryClientDiscoveryStrategyTest {
+
+    private static final String SERVICE_ID = "commandes";
+
+    private final List<ServiceInstance> instances = new CopyOnWriteArrayList<>();
+
+    private volatile RuntimeException failure;
+
+    private DiscoveryClient discoveryClient;
+
+    @BeforeEach
+    public void setup() {
+        discoveryClient = new DiscoveryClient() {
+            @Override
+            public String description() {
+                return "Stub discovery client";
+            }
+
+            @Override
+            public List<ServiceInstance> getInstances(String serviceId) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return SERVICE_ID.equals(serviceId) ? List.copyOf(instances) : List.of();
+            }
+
+            @Override
+            public List<String> getServices() {
+                return List.of(SERVICE_ID);
+            }
+        };
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance(SERVICE_ID + "-" + port, SERVICE_ID, "127.0.0.1", port, false);
+    }
+
+    private DiscoveryClientDiscoveryStrategy.Factory factory() {
+        return new DiscoveryClientDiscoveryStrategy.Factory(discoveryClient, SERVICE_ID, instance ->
+            new InetSocketAddress(instance.getHost(), instance.getPort())
+        );
+    }
+
+    private List<Address> discoverNodes() {
+        Iterable<DiscoveryNode> nodes = factory()
+            .newDiscoveryStrategy(null, Logger.getLogger(DiscoveryClientDiscoveryStrategy.class), Map.of())
+            .discoverNodes();
+        return StreamSupport.stream(nodes.spliterator(), false).map(DiscoveryNode::getPrivateAddress).toList();
+    }
+
+    @Test
+    void testEveryDiscoveryAsksTheDiscoveryClient() throws Exception {
+        instances.add(instance(5701));
+        assertThat(discoverNodes()).containsExactly(new Address("127.0.0.1", 5701));
+
+        instances.add(instance(5702));
+        assertThat(discoverNodes()).containsExactly(new Address("127.0.0.1", 5701), new Address("127.0.0.1", 5702));
+    }
+
+    @Test
+    void testDiscoveryClientFailureDiscoversNothing() {
+        instances.add(instance(5701));
+        failure = new IllegalStateException("Consul is down");
+
+        assertThat(discoverNodes()).isEmpty();
+    }
+
+    @Test
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void testMembersRegisteredLaterMerge() throws Exception {
+        String clusterName = "discovery-test-" + UUID.randomUUID();
+        // Both members start while the registry is still empty, and so form a cluster each
+        HazelcastInstance first = Hazelcast.newHazelcastInstance(memberConfig(clusterName, 5801));
+        HazelcastInstance second = Hazelcast.newHazelcastInstance(memberConfig(clusterName, 5802));
+        try {
+            assertThat(first.getCluster().getMembers()).hasSize(1);
+            assertThat(second.getCluster().getMembers()).hasSize(1);
+
+            instances.add(instance(5801));
+            instances.add(instance(5802));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(90);
+            while (first.getCluster().getMembers().size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(500);
+            }
+            assertThat(first.getCluster().getMembers()).hasSize(2);
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    private Config memberConfig(String clusterName, int port) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getDiscovery().setRefreshSeconds(1);
+        Config config = new Config();
+        config.setClusterName(clusterName);
+        config.setProperty("hazelcast.wait.seconds.before.join", "0");
+        config.getNetworkConfig().setPort(port).setPortAutoIncrement(false);
+        config.getNetworkConfig().getJoin().getMulticastConfig().setEnabled(false);
+        CacheConfiguration.initializeDiscoveryConfig(config, factory(), applicationProperties);
+        return config;
+    }
+}
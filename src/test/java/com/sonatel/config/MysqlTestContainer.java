@@ -25,6 +25,9 @@ public class MysqlTestContainer implements SqlTestContainer {
         if (null == mysqlContainer) {
             mysqlContainer = new MySQLContainer<>("mysql:9.1.0")
                 .withDatabaseName("commandes")
+                // The Liquibase changelogs create triggers, which a user without SUPER may only do with this flag
+                // while binary logging is on
+                .withCommand("--log-bin-trust-function-creators=1")
                 .withTmpFs(Collections.singletonMap("/testtmpfs", "rw"))
                 .withLogConsumer(new Slf4jLogConsumer(LOG))
                 .withReuse(true);
@@ -0,0 +1,186 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.lifecycle.Startables;
+
+/**
+ * The datasources of {@link ReplicaDataSourceConfiguration} against a MySQL primary and a replica replicating from it,
+ * in two test containers.
+ */
+class ReplicaRoutingDataSourceIT {
+
+    private static final int PRIMARY_SERVER_ID = 1;
+
+    private static final int REPLICA_SERVER_ID = 2;
+
+    private static Network network;
+
+    private static MySQLContainer<?> primaryContainer;
+
+    private static MySQLContainer<?> replicaContainer;
+
+    private static HikariDataSource primaryDataSource;
+
+    private static ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    private static TransactionTemplate readWriteTransaction;
+
+    private static TransactionTemplate readOnlyTransaction;
+
+    @BeforeAll
+    @Timeout(value = 3, unit = TimeUnit.MINUTES)
+    static void startReplication() throws SQLException {
+        network = Network.newNetwork();
+        primaryContainer = mysqlContainer(PRIMARY_SERVER_ID).withNetworkAliases("primary");
+        replicaContainer = mysqlContainer(REPLICA_SERVER_ID);
+        Startables.deepStart(primaryContainer, replicaContainer).join();
+
+        // Forget the setup of each container, so the replica only applies what comes next
+        execute(primaryContainer, "reset binary logs and gtids");
+        execute(
+            replicaContainer,
+            "reset binary logs and gtids",
+            "change replication source to source_host = 'primary', source_port = 3306, source_user = 'root', source_password = '" +
+            primaryContainer.getPassword() +
+            "', source_auto_position = 1, get_source_public_key = 1",
+            "start replica"
+        );
+
+        DataSourceProperties dataSourceProperties = new DataSourceProperties();
+        dataSourceProperties.setUrl(primaryContainer.getJdbcUrl());
+        dataSourceProperties.setUsername("root");
+        dataSourceProperties.setPassword(primaryContainer.getPassword());
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Replication.Replica replica = new ApplicationProperties.Replication.Replica();
+        replica.setUrl(replicaContainer.getJdbcUrl());
+        applicationProperties.getReplication().getReplicas().add(replica);
+
+        ReplicaDataSourceConfiguration configuration = new ReplicaDataSourceConfiguration();
+        primaryDataSource = configuration.primaryDataSource(dataSourceProperties);
+        replicaRoutingDataSource = configuration.replicaRoutingDataSource(primaryDataSource, dataSourceProperties, applicationProperties);
+        DataSource dataSource = configuration.dataSource(primaryDataSource, replicaRoutingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterAll
+    static void stopReplication() throws Exception {
+        replicaRoutingDataSource.close();
+        primaryDataSource.close();
+        replicaContainer.stop();
+        primaryContainer.stop();
+        network.close();
+    }
+
+    private static MySQLContainer<?> mysqlContainer(int serverId) {
+        return new MySQLContainer<>("mysql:9.1.0")
+            .withDatabaseName("commandes")
+            .withNetwork(network)
+            .withCommand("--server-id=" + serverId, "--gtid-mode=ON", "--enforce-gtid-consistency=ON");
+    }
+
+    private static void execute(MySQLContainer<?> container, String... sqls) throws SQLException {
+        try (
+            Connection connection = DriverManager.getConnection(container.getJdbcUrl(), "root", container.getPassword());
+            Statement statement = connection.createStatement()
+        ) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @BeforeEach
+    void awaitReplica() throws InterruptedException {
+        awaitUsableReplica();
+    }
+
+    @AfterEach
+    void restartReplication() throws SQLException {
+        execute(replicaContainer, "start replica");
+    }
+
+    /**
+     * The replication threads report no lag until they are connected to the primary.
+     */
+    private static void awaitUsableReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        replicaRoutingDataSource.checkReplicas();
+        while (replicaRoutingDataSource.getUsableReplicas().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            replicaRoutingDataSource.checkReplicas();
+        }
+    }
+
+    private static long probeCount(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select count(*) from replication_probe", Long.class));
+    }
+
+    private static int serverId(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select @@server_id", Integer.class));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        assertThat(replicaRoutingDataSource.getUsableReplicas()).hasSize(1);
+
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(REPLICA_SERVER_ID);
+        assertThat(serverId(readWriteTransaction)).isEqualTo(PRIMARY_SERVER_ID);
+    }
+
+    @Test
+    void writesOnThePrimaryAreReadFromTheReplica() throws InterruptedException {
+        readWriteTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.execute("create table if not exists replication_probe (id bigint primary key)");
+            jdbcTemplate.update("insert into replication_probe (id) values (?)", System.nanoTime());
+        });
+        long written = probeCount(readWriteTransaction);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long read = 0;
+        while (read < written && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+            read = probeCount(readOnlyTransaction);
+        }
+        assertThat(read).isEqualTo(written);
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaStops() throws Exception {
+        execute(replicaContainer, "stop replica");
+        replicaRoutingDataSource.checkReplicas();
+
+        assertThat(replicaRoutingDataSource.getUsableReplicas()).isEmpty();
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(PRIMARY_SERVER_ID);
+
+        execute(replicaContainer, "start replica");
+        awaitUsableReplica();
+
+        assertThat(serverId(readOnlyTransaction)).isEqualTo(REPLICA_SERVER_ID);
+    }
+}
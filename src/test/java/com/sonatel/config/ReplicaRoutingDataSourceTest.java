@@ -0,0 +1,164 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+
+    private Connection primaryConnection;
+
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+
+    private final Map<String, Connection> replicaConnections = new LinkedHashMap<>();
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        primary = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        for (String name : new String[] { "replica-0", "replica-1" }) {
+            Connection connection = mock(Connection.class);
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            replicas.put(name, dataSource);
+            replicaConnections.put(name, connection);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5));
+    }
+
+    private void replicaStatus(String name, Long lag) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(lag == null ? 0 : lag);
+        when(resultSet.wasNull()).thenReturn(lag == null);
+        Statement statement = mock(Statement.class);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(replicaConnections.get(name).createStatement()).thenReturn(statement);
+    }
+
+    /**
+     * The physical connection of the current transaction, which the proxy only takes on first use.
+     */
+    private static Connection targetConnection(DataSource dataSource) {
+        return ((ConnectionProxy) DataSourceUtils.getConnection(dataSource)).getTargetConnection();
+    }
+
+    @Test
+    void testOnlyReadOnlyTransactionsGoToTheReplicas() throws SQLException {
+        HikariDataSource primaryPool = mock(HikariDataSource.class);
+        Connection primaryPoolConnection = mock(Connection.class);
+        when(primaryPool.getConnection()).thenReturn(primaryPoolConnection);
+        replicaStatus("replica-0", 0L);
+        replicaStatus("replica-1", 6L);
+        routingDataSource.checkReplicas();
+        DataSource dataSource = new ReplicaDataSourceConfiguration().dataSource(primaryPool, routingDataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate readWriteTransaction = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        Connection readOnlyConnection = readOnlyTransaction.execute(status -> targetConnection(dataSource));
+        Connection readWriteConnection = readWriteTransaction.execute(status -> targetConnection(dataSource));
+        // A read-write transaction keeps the primary for the reads it makes, such as the entity reads of the services
+        Connection joinedConnection = readWriteTransaction.execute(status ->
+            readOnlyTransaction.execute(inner -> targetConnection(dataSource))
+        );
+
+        assertThat(readOnlyConnection).isSameAs(replicaConnections.get("replica-0"));
+        assertThat(readWriteConnection).isSameAs(primaryPoolConnection);
+        assertThat(joinedConnection).isSameAs(primaryPoolConnection);
+    }
+
+    @Test
+    void testReadsGoToThePrimaryBeforeTheFirstCheck() throws SQLException {
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testReadsAlternateBetweenUpToDateReplicas() throws SQLException {
+        replicaStatus("replica-0", 0L);
+        replicaStatus("replica-1", 5L);
+
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getUsableReplicas()).containsExactly("replica-0", "replica-1");
+        Connection first = routingDataSource.getConnection();
+        Connection second = routingDataSource.getConnection();
+        assertThat(first).isNotSameAs(second).isIn(replicaConnections.values());
+        assertThat(second).isIn(replicaConnections.values());
+    }
+
+    @Test
+    void testLaggingOrStoppedReplicasAreSkipped() throws SQLException {
+        replicaStatus("replica-0", 6L);
+        replicaStatus("replica-1", null);
+
+        routingDataSource.checkReplicas();
+
+        assertThat(routingDataSource.getUsableReplicas()).isEmpty();
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void testUnreachableReplicaIsSkippedUntilItsNextCheck() throws SQLException {
+        replicaStatus("replica-0", 0L);
+        replicaStatus("replica-1", 0L);
+        routingDataSource.checkReplicas();
+
+        when(replicas.get("replica-0").getConnection()).thenThrow(new SQLException("Connection refused"));
+        for (int i = 0; i < 4; i++) {
+            assertThat(routingDataSource.getConnection()).isSameAs(replicaConnections.get("replica-1"));
+        }
+        assertThat(routingDataSource.getUsableReplicas()).containsExactly("replica-1");
+    }
+
+    @Test
+    void testCredentialsArePassedToTheChosenDataSource() throws SQLException {
+        Connection primaryUserConnection = mock(Connection.class);
+        when(primary.getConnection("user", "password")).thenReturn(primaryUserConnection);
+        Connection replicaUserConnection = mock(Connection.class);
+        when(replicas.get("replica-1").getConnection("user", "password")).thenReturn(replicaUserConnection);
+
+        assertThat(routingDataSource.getConnection("user", "password")).isSameAs(primaryUserConnection);
+
+        replicaStatus("replica-0", 6L);
+        replicaStatus("replica-1", 0L);
+        routingDataSource.checkReplicas();
+        assertThat(routingDataSource.getConnection("user", "password")).isSameAs(replicaUserConnection);
+    }
+
+    @Test
+    void testUnsupportedCredentialsDoNotMarkTheReplicaUnusable() throws SQLException {
+        replicaStatus("replica-0", 0L);
+        replicaStatus("replica-1", null);
+        routingDataSource.checkReplicas();
+        when(replicas.get("replica-0").getConnection("user", "password")).thenThrow(new SQLFeatureNotSupportedException());
+
+        assertThatThrownBy(() -> routingDataSource.getConnection("user", "password")).isInstanceOf(SQLFeatureNotSupportedException.class);
+        assertThat(routingDataSource.getUsableReplicas()).containsExactly("replica-0");
+    }
+}
@@ -0,0 +1,177 @@
+package com.sonatel.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.EntryEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Unit tests for the {@link TieredCacheManager} and {@link TieredCache} classes.
+ */
+class TieredCacheManagerTest {
+
+    private ConcurrentMapCacheManager l2CacheManager;
+
+    private ApplicationProperties.Cache properties;
+
+    private MeterRegistry meterRegistry;
+
+    private TieredCacheManager cacheManager;
+
+    @BeforeEach
+    public void setup() {
+        l2CacheManager = new ConcurrentMapCacheManager();
+        properties = new ApplicationProperties.Cache();
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TieredCacheManager(l2CacheManager, properties, meterRegistry);
+    }
+
+    @Test
+    void testReadsAreServedByL1OnceLoaded() {
+        TieredCache cache = (TieredCache) cacheManager.getCache("test");
+        l2CacheManager.getCache("test").put("key", "value");
+
+        assertThat(cache.get("key").get()).isEqualTo("value");
+        // Gone from the L2 only: still served by this node's L1
+        l2CacheManager.getCache("test").evict("key");
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+        assertThat(cache.getL1().stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testWritesGoToBothTiers() {
+        Cache cache = cacheManager.getCache("test");
+
+        cache.put("key", "value");
+        assertThat(l2CacheManager.getCache("test").get("key", String.class)).isEqualTo("value");
+        assertThat(((TieredCache) cache).getL1().getIfPresent("key").get()).isEqualTo("value");
+
+        cache.evict("key");
+        assertThat(l2CacheManager.getCache("test").get("key")).isNull();
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void testValueLoaderResultIsCachedInBothTiers() {
+        Cache cache = cacheManager.getCache("test");
+
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("key", () -> "reloaded")).isEqualTo("loaded");
+        assertThat(l2CacheManager.getCache("test").get("key", String.class)).isEqualTo("loaded");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testL2EventsInvalidateL1() {
+        TieredCache cache = (TieredCache) cacheManager.getCache("test");
+        cache.put("key", "value");
+        cache.put("other", "value");
+        EntryEvent<Object, Object> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn("key");
+
+        when(event.getMember()).thenReturn(mock(Member.class));
+
+        new TieredCacheManager.L1InvalidationListener(cache, mock(Member.class)).entryUpdated(event);
+
+        assertThat(cache.getL1().getIfPresent("key")).isNull();
+        assertThat(cache.getL1().getIfPresent("other")).isNotNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLocalWritesKeepTheL1Entry() {
+        TieredCache cache = (TieredCache) cacheManager.getCache("test");
+        cache.put("key", "value");
+        Member localMember = mock(Member.class);
+        EntryEvent<Object, Object> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn("key");
+        when(event.getMember()).thenReturn(localMember);
+        TieredCacheManager.L1InvalidationListener listener = new TieredCacheManager.L1InvalidationListener(cache, localMember);
+
+        listener.entryAdded(event);
+        listener.entryUpdated(event);
+        assertThat(cache.getL1().getIfPresent("key").get()).isEqualTo("value");
+
+        // Removals always invalidate, whoever made them
+        listener.entryRemoved(event);
+        assertThat(cache.getL1().getIfPresent("key")).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReadRacingWithARemoteChangeDoesNotFillL1() {
+        EntryEvent<Object, Object> event = mock(EntryEvent.class);
+        when(event.getKey()).thenReturn("key");
+        when(event.getMember()).thenReturn(mock(Member.class));
+        TieredCache[] cache = new TieredCache[1];
+        Cache l2 = new ConcurrentMapCache("race") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper previous = super.get(key);
+                // Changed by another node while the read is in flight, its event arriving before the L1 is filled
+                super.put(key, "new");
+                new TieredCacheManager.L1InvalidationListener(cache[0], mock(Member.class)).entryUpdated(event);
+                return previous;
+            }
+        };
+        l2.put("key", "previous");
+        cache[0] = new TieredCache("race", Caffeine.newBuilder().build(), l2);
+
+        assertThat(cache[0].get("key").get()).isEqualTo("previous");
+        assertThat(cache[0].getL1().getIfPresent("key")).isNull();
+    }
+
+    @Test
+    void testReadRacingWithALocalWriteKeepsTheWrittenValue() {
+        TieredCache[] cache = new TieredCache[1];
+        Cache l2 = new ConcurrentMapCache("race") {
+            @Override
+            public ValueWrapper get(Object key) {
+                ValueWrapper previous = super.get(key);
+                // Written on this node while the read is in flight
+                if ("previous".equals(previous.get())) {
+                    cache[0].put(key, "new");
+                }
+                return previous;
+            }
+        };
+        l2.put("key", "previous");
+        cache[0] = new TieredCache("race", Caffeine.newBuilder().build(), l2);
+
+        cache[0].get("key");
+        assertThat(cache[0].getL1().getIfPresent("key").get()).isEqualTo("new");
+    }
+
+    @Test
+    void testRegionSettingsOverrideDefaults() {
+        ApplicationProperties.Cache.L1 region = new ApplicationProperties.Cache.L1();
+        region.setMaximumSize(1);
+        properties.getRegions().put("small", region);
+
+        TieredCache small = (TieredCache) cacheManager.getCache("small");
+        TieredCache other = (TieredCache) cacheManager.getCache("other");
+
+        assertThat(small.getL1().policy().eviction().orElseThrow().getMaximum()).isEqualTo(1);
+        assertThat(other.getL1().policy().eviction().orElseThrow().getMaximum()).isEqualTo(properties.getL1().getMaximumSize());
+        assertThat(cacheManager.getCacheNames()).containsExactlyInAnyOrder("small", "other");
+    }
+
+    @Test
+    void testL1MetricsAreExported() {
+        Cache cache = cacheManager.getCache("test");
+        cache.get("missing");
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "test").tag("tier", "l1").tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+    }
+}
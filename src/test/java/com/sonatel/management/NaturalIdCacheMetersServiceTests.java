@@ -0,0 +1,108 @@
+package com.sonatel.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import com.sonatel.domain.Commande;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.function.Consumer;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NaturalIdCacheMetersServiceTests {
+
+    private static final String CACHE = Commande.class.getName();
+
+    private static final String REGION = CACHE + "##NaturalId";
+
+    private MeterRegistry meterRegistry;
+
+    private LocalMapStats localMapStats;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        localMapStats = mock(LocalMapStats.class);
+        IMap<Object, Object> map = mock();
+        when(map.getLocalMapStats()).thenReturn(localMapStats);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getMap(REGION)).thenReturn(map);
+        DomainDataRegion region = mock(DomainDataRegion.class);
+        when(region.getName()).thenReturn(REGION);
+        NaturalIdDataAccess naturalIdCache = mock(NaturalIdDataAccess.class);
+        when(naturalIdCache.getRegion()).thenReturn(region);
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getEntityName()).thenReturn(CACHE);
+        when(persister.getNaturalIdCacheAccessStrategy()).thenReturn(naturalIdCache);
+        EntityPersister uncached = mock(EntityPersister.class);
+        MappingMetamodelImplementor mappingMetamodel = mock(MappingMetamodelImplementor.class);
+        doAnswer(invocation -> {
+            Consumer<EntityPersister> action = invocation.getArgument(0);
+            action.accept(persister);
+            action.accept(uncached);
+            return null;
+        })
+            .when(mappingMetamodel)
+            .forEachEntityDescriptor(any());
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getMappingMetamodel()).thenReturn(mappingMetamodel);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+        new NaturalIdCacheMetersService(meterRegistry, hazelcastInstance, entityManagerFactory);
+    }
+
+    @Test
+    void testHitsAndMissesAreReported() {
+        when(localMapStats.getHits()).thenReturn(3L);
+        when(localMapStats.getGetOperationCount()).thenReturn(4L);
+        when(localMapStats.getPutOperationCount()).thenReturn(1L);
+
+        assertThat(meterRegistry.get("cache.natural-id.gets").tag("cache", CACHE).tag("result", "hit").functionCounter().count())
+            .isEqualTo(3);
+        assertThat(meterRegistry.get("cache.natural-id.gets").tag("cache", CACHE).tag("result", "miss").functionCounter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.natural-id.puts").tag("cache", CACHE).functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.natural-id.hit.ratio").tag("cache", CACHE).gauge().value()).isEqualTo(0.75);
+    }
+
+    @Test
+    void testNearCacheHitsAreCounted() {
+        NearCacheStats nearCacheStats = mock(NearCacheStats.class);
+        when(nearCacheStats.getHits()).thenReturn(4L);
+        when(localMapStats.getNearCacheStats()).thenReturn(nearCacheStats);
+        when(localMapStats.getHits()).thenReturn(2L);
+        when(localMapStats.getGetOperationCount()).thenReturn(4L);
+
+        assertThat(meterRegistry.get("cache.natural-id.gets").tag("cache", CACHE).tag("result", "hit").functionCounter().count())
+            .isEqualTo(6);
+        assertThat(meterRegistry.get("cache.natural-id.gets").tag("cache", CACHE).tag("result", "miss").functionCounter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get("cache.natural-id.hit.ratio").tag("cache", CACHE).gauge().value()).isEqualTo(0.75);
+    }
+
+    @Test
+    void testHitRatioIsZeroWithoutLookups() {
+        assertThat(meterRegistry.get("cache.natural-id.hit.ratio").tag("cache", CACHE).gauge().value()).isZero();
+    }
+
+    @Test
+    void testEntitiesWithoutNaturalIdCacheAreNotReported() {
+        assertThat(meterRegistry.find("cache.natural-id.hit.ratio").gauges()).hasSize(1);
+    }
+}
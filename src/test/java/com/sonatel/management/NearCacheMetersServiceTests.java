@@ -0,0 +1,76 @@
+package com.sonatel.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.hazelcast.map.LocalMapStats;
+import com.hazelcast.nearcache.NearCacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Set;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NearCacheMetersServiceTests {
+
+    private static final String CACHE = "com.sonatel.domain.Commande";
+
+    private static final String UNCACHED = "com.sonatel.domain.Commande##NaturalId";
+
+    private MeterRegistry meterRegistry;
+
+    private NearCacheStats nearCacheStats;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        nearCacheStats = mock(NearCacheStats.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        mockMap(hazelcastInstance, CACHE, nearCacheStats);
+        mockMap(hazelcastInstance, UNCACHED, null);
+        CacheImplementor cache = mock(CacheImplementor.class);
+        when(cache.getCacheRegionNames()).thenReturn(Set.of(CACHE, UNCACHED));
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getCache()).thenReturn(cache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+        new NearCacheMetersService(meterRegistry, hazelcastInstance, entityManagerFactory);
+    }
+
+    private static void mockMap(HazelcastInstance hazelcastInstance, String name, NearCacheStats nearCacheStats) {
+        LocalMapStats localMapStats = mock(LocalMapStats.class);
+        when(localMapStats.getNearCacheStats()).thenReturn(nearCacheStats);
+        IMap<Object, Object> map = mock();
+        when(map.getLocalMapStats()).thenReturn(localMapStats);
+        when(hazelcastInstance.getMap(name)).thenReturn(map);
+    }
+
+    @Test
+    void testNearCacheStatsAreReported() {
+        when(nearCacheStats.getHits()).thenReturn(5L);
+        when(nearCacheStats.getMisses()).thenReturn(2L);
+        when(nearCacheStats.getInvalidations()).thenReturn(1L);
+        when(nearCacheStats.getEvictions()).thenReturn(3L);
+        when(nearCacheStats.getOwnedEntryCount()).thenReturn(4L);
+
+        assertThat(meterRegistry.get("cache.near.gets").tag("cache", CACHE).tag("result", "hit").functionCounter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("cache.near.gets").tag("cache", CACHE).tag("result", "miss").functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.near.invalidations").tag("cache", CACHE).functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.near.evictions").tag("cache", CACHE).functionCounter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.near.size").tag("cache", CACHE).gauge().value()).isEqualTo(4);
+    }
+
+    @Test
+    void testRegionsWithoutNearCacheReportZero() {
+        assertThat(meterRegistry.get("cache.near.gets").tag("cache", UNCACHED).tag("result", "hit").functionCounter().count()).isZero();
+        assertThat(meterRegistry.get("cache.near.size").tag("cache", UNCACHED).gauge().value()).isZero();
+    }
+}
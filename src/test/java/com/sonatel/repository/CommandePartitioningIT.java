@@ -0,0 +1,298 @@
+package com.sonatel.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandePartitionRepository.OrphanKey;
+import com.sonatel.repository.CommandeRepositoryWithUpsert.Upsert;
+import com.sonatel.service.CommandePartitionService;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the monthly partitioning of {@link Commande} against the MySQL test container.
+ * <p>
+ * Partition changes are DDL, which MySQL commits implicitly, so these tests do not run in a rolled back transaction
+ * and clean up after themselves.
+ */
+@IntegrationTest
+@Timeout(value = 2, unit = TimeUnit.MINUTES)
+class CommandePartitioningIT {
+
+    private static final String INSERT_SQL =
+        "insert into commande (id, referentiel, user_id, date_commande, version) values (?, ?, 'partition-user', ?, 0)";
+
+    // The lookup the entity is loaded with
+    private static final String ROUTED_LOOKUP_SQL =
+        "select commande.id from commande_referentiel join commande" +
+        " on commande.id = commande_referentiel.commande_id and commande.date_commande = commande_referentiel.date_commande" +
+        " where commande_referentiel.commande_id = ?";
+
+    private static final String COUNT_BY_REFERENTIEL = "select count(*) from commande where referentiel like 'PARTITION-%'";
+
+    // Far above the ids handed out by the sequence
+    private static final long FIRST_ID = 2_000_000_000_000L;
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private CommandePartitionRepository commandePartitionRepository;
+
+    @Autowired
+    private CommandePartitionService commandePartitionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private String archiveTable;
+
+    @BeforeEach
+    public void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from commande where referentiel like 'PARTITION-%'");
+            // Left by the expiry tests when they fail
+            jdbcTemplate.update("delete from commande_referentiel where referentiel like 'PARTITION-%'");
+        });
+        if (archiveTable != null) {
+            jdbcTemplate.execute("drop table if exists " + archiveTable);
+        }
+    }
+
+    @Test
+    void commandeIsPartitionedByMonth() {
+        assertThat(
+            jdbcTemplate.queryForList(
+                "select distinct partition_method from information_schema.partitions" +
+                " where table_schema = database() and table_name = 'commande'",
+                String.class
+            )
+        ).containsExactly("RANGE COLUMNS");
+        // One partition per month, from the oldest commande to the months carved out ahead by the maintenance
+        assertThat(findPartitionNames()).last().isEqualTo(CommandePartitionRepository.MAX_PARTITION);
+        assertThat(findPartitionNames())
+            .filteredOn(partition -> !CommandePartitionRepository.MAX_PARTITION.equals(partition))
+            .isNotEmpty()
+            .allMatch(partition -> partition.matches("p\\d{6}"));
+        assertThat(
+            jdbcTemplate.queryForList(
+                "select column_name from information_schema.key_column_usage" +
+                " where table_schema = database() and table_name = 'commande' and constraint_name = 'PRIMARY'" +
+                " order by ordinal_position",
+                String.class
+            )
+        ).containsExactly("id", "date_commande");
+    }
+
+    @Test
+    void referentielIsUniqueAcrossPartitions() {
+        insert(FIRST_ID, "PARTITION-UNIQUE", Timestamp.valueOf("2020-01-15 00:00:00"));
+
+        assertThatThrownBy(() -> insert(FIRST_ID + 1, "PARTITION-UNIQUE", Timestamp.valueOf("2099-01-15 00:00:00"))).isInstanceOf(
+            DataIntegrityViolationException.class
+        );
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class)).isEqualTo(1);
+
+        // The referentiel is free again once its commande is gone
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update("delete from commande where id = ?", FIRST_ID));
+        insert(FIRST_ID + 1, "PARTITION-UNIQUE", Timestamp.valueOf("2099-01-15 00:00:00"));
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void idIsUniqueAcrossPartitions() {
+        insert(FIRST_ID, "PARTITION-ID-1", Timestamp.valueOf("2020-01-15 00:00:00"));
+
+        assertThatThrownBy(() -> insert(FIRST_ID, "PARTITION-ID-2", Timestamp.valueOf("2099-01-15 00:00:00"))).isInstanceOf(
+            DataIntegrityViolationException.class
+        );
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void commandeIsFoundByIdInItsPartition() {
+        insert(FIRST_ID + 3, "PARTITION-FIND", Timestamp.valueOf("2020-01-15 00:00:00"));
+
+        Commande commande = transactionTemplate.execute(status -> commandeRepository.findById(FIRST_ID + 3).orElseThrow());
+        assertThat(commande.getReferentiel()).isEqualTo("PARTITION-FIND");
+
+        // The guard row follows the commande to its new partition
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("update commande set date_commande = '2099-01-15 00:00:00' where id = ?", FIRST_ID + 3)
+        );
+        assertThat(
+            jdbcTemplate.queryForObject(
+                "select date_commande from commande_referentiel where commande_id = ?",
+                Timestamp.class,
+                FIRST_ID + 3
+            )
+        ).isEqualTo(Timestamp.valueOf("2099-01-15 00:00:00"));
+        assertThat(findById(FIRST_ID + 3)).isPresent();
+
+        transactionTemplate.executeWithoutResult(status -> commandeRepository.deleteById(FIRST_ID + 3));
+        assertThat(findById(FIRST_ID + 3)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class)).isZero();
+    }
+
+    @Test
+    void lookupByIdReadsOnePartition() {
+        insert(FIRST_ID + 8, "PARTITION-ROUTED", Timestamp.valueOf("2020-01-15 00:00:00"));
+        int partitions = findPartitionNames().size();
+
+        // One transaction, so that the session counters are read on one connection
+        transactionTemplate.executeWithoutResult(status -> {
+            long baseline = indexReads("select 1");
+            assertThat(indexReads(ROUTED_LOOKUP_SQL, FIRST_ID + 8) - baseline).isLessThanOrEqualTo(2);
+            assertThat(indexReads("select id from commande where id = ?", FIRST_ID + 8) - baseline).isGreaterThanOrEqualTo(partitions);
+        });
+    }
+
+    @Test
+    void updateByIdMovesCommandeAcrossPartitions() {
+        insert(FIRST_ID + 4, "PARTITION-UPDATE", Timestamp.valueOf("2020-01-15 00:00:00"));
+        Commande commande = newCommande("PARTITION-UPDATE", Instant.parse("2099-01-15T00:00:00Z")).id(FIRST_ID + 4);
+        commande.setVersion(0L);
+
+        assertThat(updateById(commande)).contains(1L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from commande partition (pmax) where id = ?", Long.class, FIRST_ID + 4))
+            .isEqualTo(1);
+        // Stale now
+        assertThatThrownBy(() -> updateById(commande)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        assertThat(updateById(commande.id(FIRST_ID + 5))).isEmpty();
+    }
+
+    @Test
+    void upsertMovesCommandeAcrossPartitions() {
+        Upsert created = transactionTemplate.execute(status ->
+            commandeRepository.upsertByReferentiel(newCommande("PARTITION-UPSERT", Instant.parse("2020-01-15T00:00:00Z")))
+        );
+        Upsert updated = transactionTemplate.execute(status ->
+            commandeRepository.upsertByReferentiel(newCommande("PARTITION-UPSERT", Instant.parse("2099-01-15T00:00:00Z")))
+        );
+
+        assertThat(created.created()).isTrue();
+        assertThat(updated.created()).isFalse();
+        assertThat(updated.id()).isEqualTo(created.id());
+        assertThat(created.version()).isZero();
+        assertThat(updated.version()).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from commande partition (pmax) where id = ?", Long.class, created.id()))
+            .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class)).isEqualTo(1);
+    }
+
+    @Test
+    void maintenanceAddsTheComingMonths() {
+        YearMonth last = lastMonth();
+
+        commandePartitionService.maintain(last.plusMonths(2));
+
+        assertThat(findPartitionNames()).contains(
+            CommandePartitionRepository.partitionName(last.plusMonths(1)),
+            CommandePartitionRepository.partitionName(last.plusMonths(5))
+        );
+        assertThat(findPartitionNames()).last().isEqualTo(CommandePartitionRepository.MAX_PARTITION);
+    }
+
+    @Test
+    void expiredMonthIsArchived() {
+        YearMonth month = lastMonth().plusMonths(1);
+        transactionTemplate.executeWithoutResult(status -> commandePartitionRepository.addPartitions(List.of(month)));
+        archiveTable = CommandePartitionRepository.archiveTableName(month);
+        insert(FIRST_ID + 2, "PARTITION-ARCHIVE", Timestamp.valueOf(month.atDay(15).atStartOfDay()));
+        insert(FIRST_ID + 6, "PARTITION-ARCHIVE-2", Timestamp.valueOf(month.atDay(16).atStartOfDay()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            commandePartitionRepository.archivePartition(month);
+            commandePartitionRepository.dropPartition(month);
+        });
+        // Dated in the expired month, but inserted once its partition is gone
+        insert(FIRST_ID + 7, "PARTITION-ARCHIVE-LATE", Timestamp.valueOf(month.atDay(17).atStartOfDay()));
+        Instant before = month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Long> released = new ArrayList<>();
+        Optional<OrphanKey> after = Optional.empty();
+        do {
+            OrphanKey last = after.orElse(null);
+            after = transactionTemplate.execute(status -> commandePartitionRepository.releaseOrphanReferentiels(before, last, 1));
+            after.ifPresent(key -> released.add(key.id()));
+        } while (after.isPresent());
+
+        // One candidate at a time, each after the previous one
+        assertThat(released).containsSubsequence(FIRST_ID + 2, FIRST_ID + 6, FIRST_ID + 7);
+        assertThat(findPartitionNames()).doesNotContain(CommandePartitionRepository.partitionName(month));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from " + archiveTable, Long.class)).isEqualTo(2);
+        assertThat(
+            jdbcTemplate.queryForList(
+                "select referentiel from commande_referentiel where referentiel like 'PARTITION-ARCHIVE%'",
+                String.class
+            )
+        ).containsExactly("PARTITION-ARCHIVE-LATE");
+    }
+
+    private List<String> findPartitionNames() {
+        return transactionTemplate.execute(status -> commandePartitionRepository.findPartitionNames());
+    }
+
+    private YearMonth lastMonth() {
+        List<String> partitions = findPartitionNames();
+        String last = partitions.get(partitions.size() - 2);
+        return YearMonth.of(Integer.parseInt(last.substring(1, 5)), Integer.parseInt(last.substring(5)));
+    }
+
+    /**
+     * The index lookups made by a query, as counted by the session status of MySQL.
+     */
+    private long indexReads(String sql, Object... args) {
+        long before = handlerReadKey();
+        jdbcTemplate.queryForList(sql, args);
+        return handlerReadKey() - before;
+    }
+
+    private long handlerReadKey() {
+        return jdbcTemplate.queryForObject("show session status like 'Handler_read_key'", (resultSet, rowNum) -> resultSet.getLong(2));
+    }
+
+    private Optional<Commande> findById(long id) {
+        return transactionTemplate.execute(status -> commandeRepository.findById(id));
+    }
+
+    private Optional<Long> updateById(Commande commande) {
+        return transactionTemplate.execute(status -> commandeRepository.updateById(commande));
+    }
+
+    private void insert(long id, String referentiel, Timestamp dateCommande) {
+        // The test connections do not auto-commit
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(INSERT_SQL, id, referentiel, dateCommande));
+    }
+
+    private static Commande newCommande(String referentiel, Instant dateCommande) {
+        return new Commande().referentiel(referentiel).userId("partition-user").dateCommande(dateCommande);
+    }
+}
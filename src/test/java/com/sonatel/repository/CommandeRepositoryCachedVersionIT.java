@@ -0,0 +1,58 @@
+package com.sonatel.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.domain.Commande;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CommandeRepositoryWithCachedVersion}, with the second-level cache the test profile leaves out.
+ */
+@IntegrationTest
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=com.hazelcast.hibernate.HazelcastCacheRegionFactory",
+        "spring.jpa.properties.hibernate.cache.hazelcast.instance_name=commandes",
+    }
+)
+class CommandeRepositoryCachedVersionIT {
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void versionIsReadFromTheSecondLevelCache() {
+        Commande commande = transactionTemplate.execute(status ->
+            commandeRepository.save(new Commande().referentiel("CACHED-VERSION").userId("user").dateCommande(Instant.now()))
+        );
+        Long id = commande.getId();
+        try {
+            transactionTemplate.executeWithoutResult(status -> commandeRepository.findById(id));
+            assertThat(commandeRepository.findCachedVersion(id)).contains(0L);
+
+            // The update evicts the entry, the version is then only known to the database
+            transactionTemplate.executeWithoutResult(status -> commandeRepository.updateById(commande.userId("other")));
+            assertThat(commandeRepository.findCachedVersion(id)).isEmpty();
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> commandeRepository.deleteById(id));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.sonatel.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.domain.Commande;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link CommandeRepository} against the MySQL test container.
+ */
+@IntegrationTest
+@Transactional
+class CommandeRepositoryIT {
+
+    private static final String COUNT_BY_REFERENTIEL = "select count(*) from commande where referentiel like ?";
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void idsAreAllocatedWithoutInserting() {
+        Commande first = commandeRepository.save(newCommande("SEQUENCE-1"));
+        Commande second = commandeRepository.save(newCommande("SEQUENCE-2"));
+
+        // Ids come from the pooled-lo block, so the INSERTs are still pending and can be batched at flush time
+        assertThat(first.getId()).isGreaterThanOrEqualTo(1500L);
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class, "SEQUENCE-%")).isZero();
+
+        commandeRepository.flush();
+
+        assertThat(jdbcTemplate.queryForObject(COUNT_BY_REFERENTIEL, Long.class, "SEQUENCE-%")).isEqualTo(2);
+    }
+
+    private static Commande newCommande(String referentiel) {
+        return new Commande().referentiel(referentiel).userId("user").dateCommande(Instant.now());
+    }
+}
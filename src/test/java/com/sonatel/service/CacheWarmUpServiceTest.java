@@ -0,0 +1,146 @@
+package com.sonatel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.config.CacheConfiguration;
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CacheWarmUpServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private CommandeRepository commandeRepository;
+
+    private EntityManager entityManager;
+
+    private EntityManagerFactory entityManagerFactory;
+
+    private ApplicationProperties applicationProperties;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        commandeRepository = mock(CommandeRepository.class);
+        when(commandeRepository.streamAll(any(), any())).thenAnswer(invocation -> Stream.of(new Commande(), new Commande()));
+        entityManager = mock(EntityManager.class);
+        entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        when(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).thenReturn(true);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCache().getWarmUp().setDays(3);
+        applicationProperties.getCache().getWarmUp().setParallelism(2);
+    }
+
+    private CacheWarmUpService newService(Executor executor) {
+        return new CacheWarmUpService(
+            commandeRepository,
+            entityManager,
+            entityManagerFactory,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            executor
+        );
+    }
+
+    @Test
+    void testEveryDayIsLoaded() {
+        CacheWarmUpService cacheWarmUpService = newService(Runnable::run);
+
+        assertThat(cacheWarmUpService.start(NOW)).isCompletedWithValue(6L);
+
+        assertThat(cacheWarmUpService.isDone()).isTrue();
+        verify(commandeRepository).streamAll(NOW.minus(1, ChronoUnit.DAYS), null);
+        verify(commandeRepository).streamAll(NOW.minus(2, ChronoUnit.DAYS), NOW.minus(1, ChronoUnit.DAYS));
+        verify(commandeRepository).streamAll(NOW.minus(3, ChronoUnit.DAYS), NOW.minus(2, ChronoUnit.DAYS));
+        // Read back through the second-level cache, which fills the near cache
+        verify(entityManager, times(6)).find(eq(Commande.class), any());
+    }
+
+    @Test
+    void testNotDoneWhileLoading() {
+        CacheWarmUpService cacheWarmUpService = newService(tasks::add);
+
+        cacheWarmUpService.start(NOW);
+
+        assertThat(tasks).hasSize(2);
+        assertThat(cacheWarmUpService.isDone()).isFalse();
+        tasks.forEach(Runnable::run);
+        assertThat(cacheWarmUpService.isDone()).isTrue();
+        assertThat(cacheWarmUpService.getLoaded()).isEqualTo(6);
+    }
+
+    @Test
+    void testWorkersRunInParallel() throws Exception {
+        CountDownLatch workers = new CountDownLatch(2);
+        AtomicBoolean parallel = new AtomicBoolean(true);
+        when(commandeRepository.streamAll(any(), any())).thenAnswer(invocation -> {
+            workers.countDown();
+            // Both workers must be loading a day at the same time to get past this
+            if (!workers.await(10, TimeUnit.SECONDS)) {
+                parallel.set(false);
+            }
+            return Stream.of(new Commande(), new Commande());
+        });
+        ThreadPoolTaskExecutor executor = new CacheConfiguration(null, null, null).cacheWarmUpExecutor(applicationProperties);
+        executor.initialize();
+        try {
+            CacheWarmUpService cacheWarmUpService = newService(executor);
+
+            assertThat(cacheWarmUpService.start(NOW).get(30, TimeUnit.SECONDS)).isEqualTo(6L);
+
+            assertThat(parallel).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testSpentTimeBudgetStopsTheWarmUp() {
+        applicationProperties.getCache().getWarmUp().setTimeBudgetSeconds(0);
+        CacheWarmUpService cacheWarmUpService = newService(Runnable::run);
+
+        assertThat(cacheWarmUpService.start(NOW)).isCompletedWithValue(0L);
+
+        verify(commandeRepository, never()).streamAll(any(), any());
+    }
+
+    @Test
+    void testDisabledWarmUpIsDoneImmediately() {
+        applicationProperties.getCache().getWarmUp().setEnabled(false);
+        CacheWarmUpService cacheWarmUpService = newService(tasks::add);
+
+        cacheWarmUpService.start(NOW);
+
+        assertThat(cacheWarmUpService.isDone()).isTrue();
+        assertThat(tasks).isEmpty();
+        verify(commandeRepository, never()).streamAll(any(), any());
+    }
+}
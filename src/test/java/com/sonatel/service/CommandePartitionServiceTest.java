@@ -0,0 +1,186 @@
+package com.sonatel.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.repository.CommandePartitionRepository;
+import com.sonatel.repository.CommandePartitionRepository.OrphanKey;
+import com.sonatel.service.CommandePartitionService.CommandesExpired;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class CommandePartitionServiceTest {
+
+    private static final YearMonth CURRENT = YearMonth.of(2027, 1);
+
+    private CommandePartitionRepository commandePartitionRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private IMap<String, Boolean> maintenanceLocks;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private CommandePartitionService commandePartitionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() throws InterruptedException {
+        commandePartitionRepository = mock(CommandePartitionRepository.class);
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getPartitioning().setAheadMonths(3);
+        maintenanceLocks = mock(IMap.class);
+        when(maintenanceLocks.tryLock(any(), anyLong(), any(), anyLong(), any())).thenReturn(true);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<String, Boolean>getMap(CommandePartitionService.MAINTENANCE_LOCK_MAP_NAME)).thenReturn(maintenanceLocks);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        commandePartitionService = new CommandePartitionService(
+            commandePartitionRepository,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            hazelcastInstance,
+            eventPublisher
+        );
+    }
+
+    @Test
+    void testMissingMonthsAreAdded() {
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p202610", "pmax"));
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository).addPartitions(
+            List.of(
+                YearMonth.of(2026, 11),
+                YearMonth.of(2026, 12),
+                YearMonth.of(2027, 1),
+                YearMonth.of(2027, 2),
+                YearMonth.of(2027, 3),
+                YearMonth.of(2027, 4)
+            )
+        );
+        verify(commandePartitionRepository, never()).dropPartition(any());
+        verify(maintenanceLocks).unlock(any());
+    }
+
+    @Test
+    void testNothingIsDoneWhileAnotherNodeMaintains() throws InterruptedException {
+        when(maintenanceLocks.tryLock(any(), eq(0L), eq(TimeUnit.SECONDS), anyLong(), any())).thenReturn(false);
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).findPartitionNames();
+        verify(maintenanceLocks, never()).unlock(any());
+    }
+
+    @Test
+    void testNothingToAddWhenAhead() {
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p202703", "p202704", "pmax"));
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).addPartitions(anyList());
+    }
+
+    @Test
+    void testUnpartitionedTableIsLeftAlone() {
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of());
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).addPartitions(anyList());
+        verify(commandePartitionRepository, never()).dropPartition(any());
+    }
+
+    @Test
+    void testExpiredMonthsAreArchived() {
+        applicationProperties.getPartitioning().setRetentionMonths(2);
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(
+            List.of("p202610", "p202611", "p202612", "p202701", "p202702", "p202703", "p202704", "pmax")
+        );
+
+        commandePartitionService.maintain(CURRENT);
+
+        InOrder inOrder = inOrder(commandePartitionRepository, eventPublisher);
+        inOrder.verify(commandePartitionRepository).archivePartition(YearMonth.of(2026, 10));
+        inOrder.verify(commandePartitionRepository).dropPartition(YearMonth.of(2026, 10));
+        inOrder.verify(commandePartitionRepository).releaseOrphanReferentiels(any(), any(), anyInt());
+        inOrder.verify(eventPublisher).publishEvent(new CommandesExpired(YearMonth.of(2026, 10)));
+        verify(commandePartitionRepository, never()).dropPartition(YearMonth.of(2026, 11));
+        verify(commandePartitionRepository, never()).addPartitions(anyList());
+    }
+
+    @Test
+    void testOrphanReferentielsAreReleasedInBatches() {
+        applicationProperties.getPartitioning().setRetentionMonths(2);
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p202610", "p202704", "pmax"));
+        Instant before = Instant.parse("2026-11-01T00:00:00Z");
+        OrphanKey last = new OrphanKey(Instant.parse("2026-10-31T23:00:00Z"), 42L);
+        when(commandePartitionRepository.releaseOrphanReferentiels(eq(before), isNull(), anyInt())).thenReturn(Optional.of(last));
+
+        commandePartitionService.maintain(CURRENT);
+
+        // Each batch continues after the last candidate of the previous one
+        verify(commandePartitionRepository).releaseOrphanReferentiels(before, null, CommandePartitionService.RELEASE_BATCH_SIZE);
+        verify(commandePartitionRepository).releaseOrphanReferentiels(before, last, CommandePartitionService.RELEASE_BATCH_SIZE);
+        verify(commandePartitionRepository, times(2)).releaseOrphanReferentiels(any(), any(), anyInt());
+    }
+
+    @Test
+    void testExpiredMonthsAreDroppedWithoutArchive() {
+        applicationProperties.getPartitioning().setRetentionMonths(2);
+        applicationProperties.getPartitioning().setArchive(false);
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p202610", "p202704", "pmax"));
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).archivePartition(any());
+        verify(commandePartitionRepository).dropPartition(YearMonth.of(2026, 10));
+        verify(commandePartitionRepository).releaseOrphanReferentiels(any(), any(), anyInt());
+    }
+
+    @Test
+    void testExistingArchiveIsNotOverwritten() {
+        applicationProperties.getPartitioning().setRetentionMonths(2);
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p202610", "p202704", "pmax"));
+        when(commandePartitionRepository.tableExists("commande_archive_202610")).thenReturn(true);
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).archivePartition(any());
+        verify(commandePartitionRepository, never()).dropPartition(any());
+        verify(commandePartitionRepository, never()).releaseOrphanReferentiels(any(), any(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testNothingExpiresWithoutRetention() {
+        when(commandePartitionRepository.findPartitionNames()).thenReturn(List.of("p201001", "p202704", "pmax"));
+
+        commandePartitionService.maintain(CURRENT);
+
+        verify(commandePartitionRepository, never()).dropPartition(any());
+        verify(commandePartitionRepository, never()).releaseOrphanReferentiels(any(), any(), anyInt());
+    }
+}
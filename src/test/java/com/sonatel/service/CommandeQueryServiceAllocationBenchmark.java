@@ -0,0 +1,124 @@
+package com.sonatel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.domain.Commande;
+import com.sonatel.domain.Commande_;
+import com.sonatel.repository.CommandeRepository;
+import com.sonatel.service.criteria.CommandeCriteria;
+import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.mapper.CommandeMapper;
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bytes allocated per page by {@link CommandeQueryService#findByCriteria}, which projects the rows, compared with
+ * loading the entities and mapping them, against the MySQL test container. Run with the {@code benchmark} Maven profile.
+ */
+@IntegrationTest
+class CommandeQueryServiceAllocationBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeQueryServiceAllocationBenchmark.class);
+
+    private static final int ROW_COUNT = 100;
+
+    private static final int REQUEST_COUNT = Integer.getInteger("commande.allocation.requests", 2_000);
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc(Commande_.DATE_COMMANDE), Sort.Order.desc(Commande_.ID));
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private CommandeQueryService commandeQueryService;
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private CommandeMapper commandeMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void insertRows() {
+        Instant now = Instant.now();
+        commandeRepository.saveAll(
+            IntStream.range(0, ROW_COUNT)
+                .mapToObj(i -> new Commande().referentiel("ALLOCATION-BENCH-" + i).userId("allocation-bench").dateCommande(now))
+                .toList()
+        );
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("delete from commande where referentiel like 'ALLOCATION-BENCH-%'");
+    }
+
+    @Test
+    @Timeout(value = 5, unit = TimeUnit.MINUTES)
+    void allocationPerRequest() {
+        CommandeCriteria criteria = new CommandeCriteria();
+        criteria.userId().setEquals("allocation-bench");
+
+        Supplier<List<CommandeDTO>> entities = () ->
+            readOnly.execute(status -> {
+                List<Commande> commandes = commandeRepository.findBy(
+                    (root, query, builder) -> builder.equal(root.get(Commande_.userId), "allocation-bench"),
+                    query -> query.sortBy(KEYSET_SORT).limit(ROW_COUNT).all()
+                );
+                return commandeMapper.toDto(commandes);
+            });
+        Supplier<List<CommandeDTO>> projections = () -> commandeQueryService.findByCriteria(criteria, null, ROW_COUNT);
+
+        assertThat(projections.get()).hasSize(ROW_COUNT).isEqualTo(entities.get());
+
+        long entityBytes = bytesPerRequest(entities);
+        long projectionBytes = bytesPerRequest(projections);
+        LOG.info(
+            "Page of {} commandes, entities: {} bytes/request, projections: {} bytes/request",
+            ROW_COUNT,
+            entityBytes,
+            projectionBytes
+        );
+    }
+
+    /**
+     * Average allocation of the current thread, after as many warm-up requests.
+     */
+    private static long bytesPerRequest(Supplier<List<CommandeDTO>> request) {
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            request.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            request.get();
+        }
+        return (THREADS.getThreadAllocatedBytes(threadId) - before) / REQUEST_COUNT;
+    }
+}
@@ -0,0 +1,99 @@
+package com.sonatel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeRepository;
+import com.sonatel.service.criteria.CommandeCriteria;
+import com.sonatel.service.dto.CommandeDTO;
+import com.sonatel.service.mapper.CommandeMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CommandeQueryService} against the MySQL test container.
+ */
+@IntegrationTest
+class CommandeQueryServiceIT {
+
+    private static final int ROW_COUNT = 30;
+
+    @Autowired
+    private CommandeQueryService commandeQueryService;
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private CommandeMapper commandeMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Commande> commandes;
+
+    @BeforeEach
+    void insertRows() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        commandes = commandeRepository.saveAll(
+            IntStream.range(0, ROW_COUNT)
+                .mapToObj(i -> new Commande().referentiel("QUERY-IT-" + i).userId("query-it").dateCommande(now.minusSeconds(i / 2)))
+                .toList()
+        );
+    }
+
+    @AfterEach
+    void deleteRows() {
+        // The test connections do not auto-commit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("delete from commande where referentiel like 'QUERY-IT-%'")
+        );
+    }
+
+    @Test
+    void findByCriteriaReadsProjectionsInOneQuery() {
+        CommandeCriteria criteria = new CommandeCriteria();
+        criteria.userId().setEquals("query-it");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        List<CommandeDTO> page;
+        try {
+            statistics.clear();
+            page = commandeQueryService.findByCriteria(criteria, null, ROW_COUNT / 2);
+
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+            assertThat(statistics.getEntityLoadCount()).isZero();
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+
+        List<CommandeDTO> expected = commandes
+            .stream()
+            .sorted(Comparator.comparing(Commande::getDateCommande).thenComparing(Commande::getId).reversed())
+            .limit(ROW_COUNT / 2)
+            .map(commandeMapper::toDto)
+            .toList();
+        assertThat(page).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+    }
+}
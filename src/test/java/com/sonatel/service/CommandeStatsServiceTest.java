@@ -0,0 +1,108 @@
+package com.sonatel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.sonatel.config.ApplicationProperties;
+import com.sonatel.repository.CommandeStatsRepository;
+import com.sonatel.repository.CommandeStatsRepository.Delta;
+import com.sonatel.repository.CommandeStatsRepository.UserDay;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class CommandeStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.parse("2026-10-18");
+
+    private CommandeStatsRepository commandeStatsRepository;
+
+    private PlatformTransactionManager transactionManager;
+
+    private ApplicationProperties applicationProperties;
+
+    private CommandeStatsService commandeStatsService;
+
+    @BeforeEach
+    public void setup() {
+        commandeStatsRepository = mock(CommandeStatsRepository.class);
+        when(commandeStatsRepository.deleteDeltas(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getStats().setFoldBatchSize(3);
+        commandeStatsService = new CommandeStatsService(commandeStatsRepository, transactionManager, applicationProperties);
+    }
+
+    @Test
+    void testDeltasAreSummedByDayAndUser() {
+        when(commandeStatsRepository.findOldestDeltas(3)).thenReturn(
+            List.of(new Delta(1, DAY, "alice", 1), new Delta(2, DAY, "bob", 1), new Delta(3, DAY.plusDays(1), "alice", 1)),
+            List.of(new Delta(4, DAY, "alice", -1), new Delta(5, DAY.plusDays(1), "alice", 1))
+        );
+
+        assertThat(commandeStatsService.fold()).isEqualTo(5);
+
+        verify(commandeStatsRepository).addDailyCounts(Map.of(DAY, 2L, DAY.plusDays(1), 1L));
+        verify(commandeStatsRepository).addDailyUserCounts(
+            Map.of(new UserDay("alice", DAY), 1L, new UserDay("bob", DAY), 1L, new UserDay("alice", DAY.plusDays(1)), 1L)
+        );
+        verify(commandeStatsRepository).deleteDeltas(List.of(1L, 2L, 3L));
+        verify(commandeStatsRepository).addDailyCounts(Map.of(DAY, -1L, DAY.plusDays(1), 1L));
+        verify(commandeStatsRepository).addDailyUserCounts(
+            Map.of(new UserDay("alice", DAY), -1L, new UserDay("alice", DAY.plusDays(1)), 1L)
+        );
+        verify(commandeStatsRepository).deleteDeltas(List.of(4L, 5L));
+    }
+
+    @Test
+    void testCancellingDeltasLeaveTheRollupsAlone() {
+        when(commandeStatsRepository.findOldestDeltas(anyInt())).thenReturn(
+            List.of(new Delta(1, DAY, "alice", 1), new Delta(2, DAY, "alice", -1))
+        );
+
+        assertThat(commandeStatsService.fold()).isEqualTo(2);
+
+        verify(commandeStatsRepository).addDailyCounts(Map.of());
+        verify(commandeStatsRepository).addDailyUserCounts(Map.of());
+        verify(commandeStatsRepository).deleteDeltas(List.of(1L, 2L));
+    }
+
+    @Test
+    void testNothingToFold() {
+        when(commandeStatsRepository.findOldestDeltas(anyInt())).thenReturn(List.of());
+
+        assertThat(commandeStatsService.fold()).isZero();
+
+        verify(commandeStatsRepository, never()).addDailyCounts(anyMap());
+        verify(commandeStatsRepository, never()).deleteDeltas(anyList());
+    }
+
+    @Test
+    void testDeltasFoldedConcurrentlyAreNotCountedTwice() {
+        when(commandeStatsRepository.findOldestDeltas(anyInt())).thenReturn(
+            List.of(new Delta(1, DAY, "alice", 1), new Delta(2, DAY, "bob", 1))
+        );
+        when(commandeStatsRepository.deleteDeltas(List.of(1L, 2L))).thenReturn(1);
+
+        assertThat(commandeStatsService.fold()).isZero();
+
+        verify(commandeStatsRepository, never()).addDailyCounts(anyMap());
+        verify(commandeStatsRepository, never()).addDailyUserCounts(anyMap());
+        // The transaction manager rolls back a transaction marked rollback-only on commit
+        verify(transactionManager).commit(argThat(TransactionStatus::isRollbackOnly));
+    }
+}
@@ -0,0 +1,107 @@
+package com.sonatel.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.assertj.core.api.Condition;
+import org.junit.jupiter.api.Test;
+
+class CommandeCriteriaTest {
+
+    @Test
+    void newCommandeCriteriaHasAllFiltersNullTest() {
+        var commandeCriteria = new CommandeCriteria();
+        assertThat(commandeCriteria).is(criteriaFiltersAre(filter -> filter == null));
+    }
+
+    @Test
+    void commandeCriteriaFluentMethodsCreatesFiltersTest() {
+        var commandeCriteria = new CommandeCriteria();
+
+        setAllFilters(commandeCriteria);
+
+        assertThat(commandeCriteria).is(criteriaFiltersAre(filter -> filter != null));
+    }
+
+    @Test
+    void commandeCriteriaCopyCreatesNullFilterTest() {
+        var commandeCriteria = new CommandeCriteria();
+        var copy = commandeCriteria.copy();
+
+        assertThat(commandeCriteria).satisfies(
+            criteria ->
+                assertThat(criteria).is(
+                    copyFiltersAre(copy, (a, b) -> (a == null || a instanceof Boolean) ? a == b : (a != b && a.equals(b)))
+                ),
+            criteria -> assertThat(criteria).isEqualTo(copy),
+            criteria -> assertThat(criteria).hasSameHashCodeAs(copy)
+        );
+
+        assertThat(copy).satisfies(
+            criteria -> assertThat(criteria).is(criteriaFiltersAre(filter -> filter == null)),
+            criteria -> assertThat(criteria).isEqualTo(commandeCriteria)
+        );
+    }
+
+    @Test
+    void commandeCriteriaCopyDuplicatesEveryExistingFilterTest() {
+        var commandeCriteria = new CommandeCriteria();
+        setAllFilters(commandeCriteria);
+
+        var copy = commandeCriteria.copy();
+
+        assertThat(commandeCriteria).satisfies(
+            criteria ->
+                assertThat(criteria).is(
+                    copyFiltersAre(copy, (a, b) -> (a == null || a instanceof Boolean) ? a == b : (a != b && a.equals(b)))
+                ),
+            criteria -> assertThat(criteria).isEqualTo(copy),
+            criteria -> assertThat(criteria).hasSameHashCodeAs(copy)
+        );
+
+        assertThat(copy).satisfies(
+            criteria -> assertThat(criteria).is(criteriaFiltersAre(filter -> filter != null)),
+            criteria -> assertThat(criteria).isEqualTo(commandeCriteria)
+        );
+    }
+
+    @Test
+    void toStringVerifier() {
+        var commandeCriteria = new CommandeCriteria();
+
+        assertThat(commandeCriteria).hasToString("CommandeCriteria{}");
+    }
+
+    private static void setAllFilters(CommandeCriteria commandeCriteria) {
+        commandeCriteria.id();
+        commandeCriteria.referentiel();
+        commandeCriteria.userId();
+        commandeCriteria.dateCommande();
+        commandeCriteria.distinct();
+    }
+
+    private static Condition<CommandeCriteria> criteriaFiltersAre(Function<Object, Boolean> condition) {
+        return new Condition<>(
+            criteria ->
+                condition.apply(criteria.getId()) &&
+                condition.apply(criteria.getReferentiel()) &&
+                condition.apply(criteria.getUserId()) &&
+                condition.apply(criteria.getDateCommande()) &&
+                condition.apply(criteria.getDistinct()),
+            "every filter matches"
+        );
+    }
+
+    private static Condition<CommandeCriteria> copyFiltersAre(CommandeCriteria copy, BiFunction<Object, Object, Boolean> condition) {
+        return new Condition<>(
+            criteria ->
+                condition.apply(criteria.getId(), copy.getId()) &&
+                condition.apply(criteria.getReferentiel(), copy.getReferentiel()) &&
+                condition.apply(criteria.getUserId(), copy.getUserId()) &&
+                condition.apply(criteria.getDateCommande(), copy.getDateCommande()) &&
+                condition.apply(criteria.getDistinct(), copy.getDistinct()),
+            "every filter matches"
+        );
+    }
+}
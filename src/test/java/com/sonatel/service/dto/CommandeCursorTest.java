@@ -0,0 +1,34 @@
+package com.sonatel.service.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class CommandeCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        CommandeCursor cursor = new CommandeCursor(Instant.parse("2025-01-09T16:08:31.123456Z"), 1500L);
+        assertThat(CommandeCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void encodeDecodeBeforeEpoch() {
+        CommandeCursor cursor = new CommandeCursor(Instant.ofEpochSecond(-1L, 5), 1L);
+        assertThat(CommandeCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        CommandeCursor cursor = new CommandeCursor(Instant.now(), Long.MAX_VALUE);
+        assertThat(cursor.encode()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decodeRejectsMalformedToken() {
+        assertThatIllegalArgumentException().isThrownBy(() -> CommandeCursor.decode("not a cursor"));
+        assertThatIllegalArgumentException().isThrownBy(() -> CommandeCursor.decode("MTox"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.service.CommandeService;
+import com.sonatel.service.dto.CommandeBulkResultDTO;
+import com.sonatel.service.dto.CommandeDTO;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Throughput of {@link CommandeService#saveAll} compared with one {@link CommandeService#save} per commande,
+ * against the MySQL test container. Run with the {@code benchmark} Maven profile.
+ */
+@IntegrationTest
+class CommandeServiceBulkBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeServiceBulkBenchmark.class);
+
+    private static final int BULK_ROW_COUNT = Integer.getInteger("commande.bulk.rows", 10_000);
+
+    private static final int SINGLE_ROW_COUNT = Integer.getInteger("commande.single.rows", 1_000);
+
+    @Autowired
+    private CommandeService commandeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void deleteRows() {
+        jdbcTemplate.update("delete from commande where referentiel like 'BULK-BENCH-%'");
+    }
+
+    @Test
+    void bulkCreationThroughput() {
+        List<CommandeDTO> single = newCommandes("BULK-BENCH-SINGLE-", SINGLE_ROW_COUNT);
+        long start = System.nanoTime();
+        single.forEach(commandeService::save);
+        double singleRate = rowsPerSecond(SINGLE_ROW_COUNT, System.nanoTime() - start);
+
+        List<CommandeDTO> bulk = newCommandes("BULK-BENCH-BULK-", BULK_ROW_COUNT);
+        start = System.nanoTime();
+        CommandeBulkResultDTO result = commandeService.saveAll(bulk);
+        double bulkRate = rowsPerSecond(BULK_ROW_COUNT, System.nanoTime() - start);
+
+        LOG.info("Single creation: {} rows/s, bulk creation: {} rows/s", Math.round(singleRate), Math.round(bulkRate));
+        assertThat(result.getCreated()).isEqualTo(BULK_ROW_COUNT);
+        assertThat(result.getRejected()).isZero();
+    }
+
+    private static List<CommandeDTO> newCommandes(String prefix, int count) {
+        Instant now = Instant.now();
+        return IntStream.range(0, count)
+            .mapToObj(i -> {
+                CommandeDTO commandeDTO = new CommandeDTO();
+                commandeDTO.setReferentiel(prefix + i);
+                commandeDTO.setUserId("user-" + (i % 100));
+                commandeDTO.setDateCommande(now);
+                return commandeDTO;
+            })
+            .toList();
+    }
+
+    private static double rowsPerSecond(int rows, long elapsedNanos) {
+        return rows * 1_000_000_000d / Math.max(elapsedNanos, 1);
+    }
+}
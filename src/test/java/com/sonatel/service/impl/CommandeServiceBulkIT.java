@@ -0,0 +1,94 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.service.CommandeService;
+import com.sonatel.service.dto.CommandeBulkResultDTO;
+import com.sonatel.service.dto.CommandeDTO;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CommandeService#saveAll} against the MySQL test container.
+ */
+@IntegrationTest
+class CommandeServiceBulkIT {
+
+    private static final int ROW_COUNT = 1_000;
+
+    @Autowired
+    private CommandeService commandeService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    private boolean statisticsEnabled;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void deleteRows() {
+        statistics.setStatisticsEnabled(statisticsEnabled);
+        // The test connections do not auto-commit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("delete from commande where referentiel like 'BULK-IT-%'")
+        );
+    }
+
+    @Test
+    void bulkCreationIsWrittenInJdbcBatches() {
+        List<CommandeDTO> commandes = new ArrayList<>(newCommandes(ROW_COUNT));
+        commandes.add(newCommandes(1).get(0));
+
+        CommandeBulkResultDTO result = commandeService.saveAll(commandes);
+
+        assertThat(result.getCreated()).isEqualTo(ROW_COUNT);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from commande where referentiel like 'BULK-IT-%'", Long.class)).isEqualTo(
+            ROW_COUNT
+        );
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROW_COUNT);
+        // One statement per JDBC batch, per id block and per chunk lookup, far fewer than one per commande
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROW_COUNT / 10);
+    }
+
+    private static List<CommandeDTO> newCommandes(int count) {
+        Instant now = Instant.now();
+        return IntStream.range(0, count)
+            .mapToObj(i -> {
+                CommandeDTO commandeDTO = new CommandeDTO();
+                commandeDTO.setReferentiel("BULK-IT-" + i);
+                commandeDTO.setUserId("user-" + (i % 100));
+                commandeDTO.setDateCommande(now);
+                return commandeDTO;
+            })
+            .toList();
+    }
+}
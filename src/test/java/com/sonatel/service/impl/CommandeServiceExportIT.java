@@ -0,0 +1,114 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.service.CommandeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Memory footprint of {@link CommandeService#export} against the MySQL test container.
+ */
+@IntegrationTest
+class CommandeServiceExportIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeServiceExportIT.class);
+
+    private static final int ROW_COUNT = Integer.getInteger("commande.export.rows", 100_000);
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    // Far above any id handed out by the commande_sequence table
+    private static final long ID_OFFSET = 8_000_000_000L;
+
+    private static final Instant FROM = Instant.parse("2998-01-01T00:00:00Z");
+
+    // Far below what half of the rows would retain as managed entities
+    private static final long MAX_RETAINED_HEAP_GROWTH = 32L * 1024 * 1024;
+
+    @Autowired
+    private CommandeService commandeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    void insertRows() {
+        // The test connections do not auto-commit
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int start = 0; start < ROW_COUNT; start += INSERT_BATCH_SIZE) {
+                int offset = start;
+                jdbcTemplate.batchUpdate(
+                    "insert into commande (id, referentiel, user_id, date_commande, version) values (?, ?, ?, ?, 0)",
+                    IntStream.range(offset, Math.min(offset + INSERT_BATCH_SIZE, ROW_COUNT))
+                        .mapToObj(i ->
+                            new Object[] { ID_OFFSET + i, "EXPORT-BENCH-" + i, "user-" + (i % 100), Timestamp.from(FROM.plusSeconds(i)) }
+                        )
+                        .toList()
+                );
+            }
+        });
+    }
+
+    @AfterEach
+    void deleteRows() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            jdbcTemplate.update("delete from commande where referentiel like 'EXPORT-BENCH-%'")
+        );
+    }
+
+    @Test
+    void exportStreamsInConstantMemory() {
+        long heapBefore = retainedHeap();
+        AtomicLong retainedGrowth = new AtomicLong();
+        AtomicLong maxManagedEntities = new AtomicLong();
+        AtomicLong exported = new AtomicLong();
+
+        long count = commandeService.export(FROM, FROM.plusSeconds(ROW_COUNT), commandeDTO -> {
+            // The sink runs in the export transaction, so the shared entity manager is the one streaming the rows
+            int managed = entityManager.unwrap(SessionImplementor.class).getPersistenceContext().getNumberOfManagedEntities();
+            maxManagedEntities.accumulateAndGet(managed, Math::max);
+            if (exported.incrementAndGet() == ROW_COUNT / 2) {
+                retainedGrowth.set(retainedHeap() - heapBefore);
+            }
+        });
+
+        LOG.info("Exported {} commandes, retained heap growth half-way {} KiB", count, retainedGrowth.get() / 1024);
+        assertThat(count).isEqualTo(ROW_COUNT);
+        assertThat(maxManagedEntities.get()).isZero();
+        assertThat(retainedGrowth.get()).isLessThan(MAX_RETAINED_HEAP_GROWTH);
+    }
+
+    /**
+     * Heap still in use after a full collection, so that young generation sizing does not count.
+     */
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,114 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.service.CommandeService;
+import com.sonatel.service.dto.CommandeCursor;
+import com.sonatel.service.dto.CommandeDTO;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Latency of {@link CommandeService#findHistoryByUserId} against the MySQL test container.
+ * <p>
+ * The table is loaded with {@code commande.history.rows} commandes spread over {@code commande.history.users} users;
+ * run with {@code -Dcommande.history.rows=10000000} for the reference measurement. Run with the {@code benchmark} Maven
+ * profile.
+ */
+@IntegrationTest
+class CommandeServiceHistoryBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeServiceHistoryBenchmark.class);
+
+    private static final int ROW_COUNT = Integer.getInteger("commande.history.rows", 100_000);
+
+    private static final int USER_COUNT = Integer.getInteger("commande.history.users", 1_000);
+
+    private static final int REQUEST_COUNT = Integer.getInteger("commande.history.requests", 2_000);
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int CHUNK_SIZE = 100_000;
+
+    // Far above the ids handed out by the sequence
+    private static final long FIRST_ID = 1_000_000_000_000L;
+
+    private static final String INSERT_SQL =
+        "insert into commande (id, referentiel, user_id, date_commande, version)" +
+        " with digit (d) as (select 0 union all select 1 union all select 2 union all select 3 union all select 4" +
+        " union all select 5 union all select 6 union all select 7 union all select 8 union all select 9)," +
+        " seq (n) as (select ? + a.d + 10 * b.d + 100 * c.d + 1000 * e.d + 10000 * f.d" +
+        " from digit a, digit b, digit c, digit e, digit f)" +
+        " select ? + n, concat('HISTORY-BENCH-', n), concat('history-bench-', n % ?), date_sub(?, interval n second), 0" +
+        " from seq where n < ?";
+
+    @Autowired
+    private CommandeService commandeService;
+
+    @BeforeAll
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    static void insertRows(@Autowired JdbcTemplate jdbcTemplate) {
+        Timestamp newest = Timestamp.from(Instant.now());
+        long start = System.nanoTime();
+        for (int offset = 0; offset < ROW_COUNT; offset += CHUNK_SIZE) {
+            jdbcTemplate.update(INSERT_SQL, offset, FIRST_ID, USER_COUNT, newest, ROW_COUNT);
+        }
+        jdbcTemplate.execute("analyze table commande");
+        LOG.info("Inserted {} commandes in {} ms", ROW_COUNT, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @AfterAll
+    @Timeout(value = 30, unit = TimeUnit.MINUTES)
+    static void deleteRows(@Autowired JdbcTemplate jdbcTemplate) {
+        for (long from = FIRST_ID; from < FIRST_ID + ROW_COUNT; from += CHUNK_SIZE) {
+            jdbcTemplate.update("delete from commande where id >= ? and id < ?", from, from + CHUNK_SIZE);
+        }
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.MINUTES)
+    void historyLatency() {
+        long[] firstPage = new long[REQUEST_COUNT];
+        long[] nextPage = new long[REQUEST_COUNT];
+        for (int i = 0; i < REQUEST_COUNT; i++) {
+            String userId = "history-bench-" + ThreadLocalRandom.current().nextInt(USER_COUNT);
+
+            long start = System.nanoTime();
+            List<CommandeDTO> page = commandeService.findHistoryByUserId(userId, null, PAGE_SIZE + 1);
+            firstPage[i] = System.nanoTime() - start;
+            assertThat(page).isNotEmpty();
+
+            CommandeCursor after = CommandeCursor.of(page.get(page.size() - 1));
+            start = System.nanoTime();
+            commandeService.findHistoryByUserId(userId, after, PAGE_SIZE + 1);
+            nextPage[i] = System.nanoTime() - start;
+        }
+
+        LOG.info("User history over {} commandes, first page: {}", ROW_COUNT, percentiles(firstPage));
+        LOG.info("User history over {} commandes, next page: {}", ROW_COUNT, percentiles(nextPage));
+    }
+
+    private static String percentiles(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return String.format(
+            "p50 %d µs, p99 %d µs, max %d µs",
+            TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length / 2]),
+            TimeUnit.NANOSECONDS.toMicros(sorted[(int) (sorted.length * 0.99)]),
+            TimeUnit.NANOSECONDS.toMicros(sorted[sorted.length - 1])
+        );
+    }
+}
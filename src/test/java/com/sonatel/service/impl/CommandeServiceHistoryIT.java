@@ -0,0 +1,113 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.service.CommandeService;
+import com.sonatel.service.dto.CommandeCursor;
+import com.sonatel.service.dto.CommandeDTO;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link CommandeService#findHistoryByUserId} against the MySQL test container.
+ */
+@IntegrationTest
+class CommandeServiceHistoryIT {
+
+    private static final int ROW_COUNT = 1_000;
+
+    private static final int USER_COUNT = 10;
+
+    private static final int PAGE_SIZE = 20;
+
+    // Far above the ids handed out by the sequence
+    private static final long FIRST_ID = 1_000_000_000_000L;
+
+    private static final Instant NEWEST = Instant.parse("2026-10-18T00:00:00Z");
+
+    @Autowired
+    private CommandeService commandeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void insertRows() {
+        // The test connections do not auto-commit
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.batchUpdate(
+                "insert into commande (id, referentiel, user_id, date_commande, version) values (?, ?, ?, ?, 0)",
+                IntStream.range(0, ROW_COUNT)
+                    // Pairs of commandes share their date, so that the id breaks the ties
+                    .mapToObj(i ->
+                        new Object[] {
+                            FIRST_ID + i,
+                            "HISTORY-IT-" + i,
+                            "history-it-" + (i % USER_COUNT),
+                            Timestamp.from(NEWEST.minusSeconds(i / (2 * USER_COUNT))),
+                        }
+                    )
+                    .toList()
+            )
+        );
+        jdbcTemplate.execute("analyze table commande");
+    }
+
+    @AfterEach
+    void deleteRows() {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.update("delete from commande where referentiel like 'HISTORY-IT-%'")
+        );
+    }
+
+    @Test
+    void historyIsReadFromTheCoveringIndex() {
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+            "explain select id, referentiel, user_id, date_commande, version from commande where user_id = ?" +
+            " order by date_commande desc, id desc limit ?",
+            "history-it-1",
+            PAGE_SIZE + 1
+        );
+
+        assertThat(plan.get("key")).isEqualTo("ix_commande__user_id_date_commande_id");
+        // No filesort, and no lookup of the clustered index
+        assertThat((String) plan.get("Extra")).contains("Using index").doesNotContain("filesort");
+    }
+
+    @Test
+    void historyPagesCoverEveryCommandeOfTheUserOnce() {
+        List<CommandeDTO> history = new ArrayList<>();
+        CommandeCursor after = null;
+        List<CommandeDTO> page;
+        do {
+            page = commandeService.findHistoryByUserId("history-it-1", after, PAGE_SIZE);
+            history.addAll(page);
+            after = page.isEmpty() ? null : CommandeCursor.of(page.get(page.size() - 1));
+        } while (page.size() == PAGE_SIZE);
+
+        assertThat(history).hasSize(ROW_COUNT / USER_COUNT).allMatch(commandeDTO -> "history-it-1".equals(commandeDTO.getUserId()));
+        assertThat(history).extracting(CommandeDTO::getId).doesNotHaveDuplicates();
+        assertThat(history).isSortedAccordingTo(
+            Comparator.comparing(CommandeDTO::getDateCommande).thenComparing(CommandeDTO::getId).reversed()
+        );
+    }
+}
@@ -0,0 +1,84 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class NegativeCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrentMapCache cache;
+
+    private NegativeCache negativeCache;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ConcurrentMapCache("test");
+        negativeCache = new NegativeCache(cache, meterRegistry);
+    }
+
+    @AfterEach
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testMissingKeysAreCountedAsAvoidedQueries() {
+        assertThat(negativeCache.isMissing("id:1")).isFalse();
+        negativeCache.markMissing("id:1");
+
+        assertThat(negativeCache.isMissing("id:1")).isTrue();
+        assertThat(negativeCache.isMissing("id:1")).isTrue();
+        assertThat(negativeCache.isMissing("id:2")).isFalse();
+        assertThat(hits()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidateForgetsTheKeys() {
+        negativeCache.markMissing("id:1");
+        negativeCache.markMissing("id:2");
+
+        negativeCache.invalidate("id:1");
+
+        assertThat(negativeCache.isMissing("id:1")).isFalse();
+        assertThat(negativeCache.isMissing("id:2")).isTrue();
+    }
+
+    @Test
+    void testInvalidateEvictsAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        negativeCache.markMissing("id:1");
+
+        negativeCache.invalidate("id:1");
+        // A concurrent lookup still sees the uncommitted state
+        negativeCache.markMissing("id:1");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(negativeCache.isMissing("id:1")).isFalse();
+    }
+
+    @Test
+    void testInvalidateAllForgetsEveryKey() {
+        negativeCache.markMissing("id:1");
+        negativeCache.markMissing("referentiel:REF");
+
+        negativeCache.invalidateAll();
+
+        assertThat(cache.getNativeCache()).isEmpty();
+    }
+
+    private double hits() {
+        return meterRegistry.get(NegativeCache.HITS_METER_NAME).tag("cache", "test").counter().count();
+    }
+}
@@ -0,0 +1,105 @@
+package com.sonatel.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private MeterRegistry meterRegistry;
+
+    private SingleFlight<Long, String> singleFlight;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", meterRegistry);
+    }
+
+    @Test
+    void testConcurrentLoadsOfTheSameKeyAreCoalesced() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(
+                    executor.submit(() ->
+                        singleFlight.load(1L, () -> {
+                            loads.incrementAndGet();
+                            awaitQuietly(release);
+                            return "value";
+                        })
+                    )
+                );
+            }
+            // Let every caller join the first load before it completes
+            while (coalescedCount() < CALLERS - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(loadedCount()).isEqualTo(1);
+        assertThat(coalescedCount()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    void testSequentialLoadsAreNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.load(1L, () -> "value" + loads.incrementAndGet());
+        String second = singleFlight.load(1L, () -> "value" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("value2");
+        assertThat(coalescedCount()).isZero();
+    }
+
+    @Test
+    void testLoaderFailureIsRethrownAndNotKept() {
+        assertThatThrownBy(() ->
+            singleFlight.load(1L, () -> {
+                throw new IllegalStateException("boom");
+            })
+        ).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.load(1L, () -> "value")).isEqualTo("value");
+    }
+
+    private double loadedCount() {
+        return meterRegistry.get(SingleFlight.LOADS_METER_NAME).tag("name", "test").tag("result", "loaded").counter().count();
+    }
+
+    private double coalescedCount() {
+        return meterRegistry.get(SingleFlight.LOADS_METER_NAME).tag("name", "test").tag("result", "coalesced").counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
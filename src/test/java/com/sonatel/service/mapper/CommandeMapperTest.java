@@ -3,6 +3,9 @@ package com.sonatel.service.mapper;
 import static com.sonatel.domain.CommandeAsserts.*;
 import static com.sonatel.domain.CommandeTestSamples.*;
 
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeProjection;
+import java.time.Instant;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -21,4 +24,18 @@ class CommandeMapperTest {
         var actual = commandeMapper.toEntity(commandeMapper.toDto(expected));
         assertCommandeAllPropertiesEquals(expected, actual);
     }
+
+    @Test
+    void shouldConvertProjectionToDto() {
+        var expected = getCommandeSample1().dateCommande(Instant.now()).version(3L);
+        var projection = new CommandeProjection(
+            expected.getId(),
+            expected.getReferentiel(),
+            expected.getUserId(),
+            expected.getDateCommande(),
+            expected.getVersion()
+        );
+        Commande actual = commandeMapper.toEntity(commandeMapper.toDto(projection));
+        assertCommandeAllPropertiesEquals(expected, actual);
+    }
 }
@@ -0,0 +1,92 @@
+package com.sonatel.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.sonatel.IntegrationTest;
+import com.sonatel.config.CacheNames;
+import com.sonatel.domain.Commande;
+import com.sonatel.repository.CommandeRepository;
+import java.time.Instant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Requests per second of {@code GET /api/commandes/{id}} served from the JSON response cache compared with the same
+ * requests mapped and serialized each time, against the MySQL test container. Run with the {@code benchmark} Maven profile.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CommandeResourceGetBenchmark {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CommandeResourceGetBenchmark.class);
+
+    private static final int REQUEST_COUNT = Integer.getInteger("commande.get.requests", 2_000);
+
+    @Autowired
+    private CommandeRepository commandeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MockMvc restCommandeMockMvc;
+
+    private Commande commande;
+
+    private Cache commandeJsonCache;
+
+    @BeforeEach
+    void insertCommande() {
+        commande = commandeRepository.saveAndFlush(
+            new Commande().referentiel("GET-BENCH-" + System.nanoTime()).userId("user-1").dateCommande(Instant.now())
+        );
+        commandeJsonCache = cacheManager.getCache(CacheNames.COMMANDE_JSON);
+    }
+
+    @AfterEach
+    void deleteCommande() {
+        commandeRepository.deleteById(commande.getId());
+        commandeJsonCache.evict(CommandeResource.jsonCacheKey(commande.getId(), commande.getVersion()));
+    }
+
+    @Test
+    void cachedResponseThroughput() throws Exception {
+        // Warm up both paths
+        getCommande(REQUEST_COUNT / 10, true);
+        getCommande(REQUEST_COUNT / 10, false);
+
+        long start = System.nanoTime();
+        getCommande(REQUEST_COUNT, true);
+        double uncachedRate = requestsPerSecond(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        getCommande(REQUEST_COUNT, false);
+        double cachedRate = requestsPerSecond(System.nanoTime() - start);
+
+        LOG.info("Without the JSON cache: {} requests/s, with it: {} requests/s", Math.round(uncachedRate), Math.round(cachedRate));
+    }
+
+    private void getCommande(int count, boolean evictFirst) throws Exception {
+        for (int i = 0; i < count; i++) {
+            if (evictFirst) {
+                commandeJsonCache.evict(CommandeResource.jsonCacheKey(commande.getId(), commande.getVersion()));
+            }
+            restCommandeMockMvc.perform(get("/api/commandes/{id}", commande.getId())).andExpect(status().isOk());
+        }
+    }
+
+    private static double requestsPerSecond(long elapsedNanos) {
+        return REQUEST_COUNT * 1_000_000_000d / Math.max(elapsedNanos, 1);
+    }
+}
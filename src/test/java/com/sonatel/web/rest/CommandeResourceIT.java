@@ -3,29 +3,44 @@ package com.sonatel.web.rest;
 import static com.sonatel.domain.CommandeAsserts.*;
 import static com.sonatel.web.rest.TestUtil.createUpdateProxyForBean;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sonatel.IntegrationTest;
+import com.sonatel.config.CacheNames;
 import com.sonatel.domain.Commande;
 import com.sonatel.repository.CommandeRepository;
+import com.sonatel.service.CommandeStatsService;
+import com.sonatel.service.dto.CommandeCursor;
 import com.sonatel.service.dto.CommandeDTO;
 import com.sonatel.service.mapper.CommandeMapper;
 import jakarta.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -60,12 +75,18 @@ class CommandeResourceIT {
     @Autowired
     private CommandeMapper commandeMapper;
 
+    @Autowired
+    private CommandeStatsService commandeStatsService;
+
     @Autowired
     private EntityManager em;
 
     @Autowired
     private MockMvc restCommandeMockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     private Commande commande;
 
     private Commande insertedCommande;
@@ -98,9 +119,13 @@ class CommandeResourceIT {
     @AfterEach
     public void cleanup() {
         if (insertedCommande != null) {
-            commandeRepository.delete(insertedCommande);
+            // By id: PUT and PATCH bump the version behind the back of insertedCommande, failing an optimistic delete
+            commandeRepository.deleteAllByIdInBatch(List.of(insertedCommande.getId()));
             insertedCommande = null;
         }
+        // Commandes inserted through the repository do not invalidate the misses recorded by the service
+        cacheManager.getCache(CacheNames.MISSING_COMMANDES).clear();
+        cacheManager.getCache(CacheNames.COMMANDE_JSON).clear();
     }
 
     @Test
@@ -127,6 +152,117 @@ class CommandeResourceIT {
         insertedCommande = returnedCommande;
     }
 
+    @Test
+    void createCommandesInBulk() throws Exception {
+        // Not transactional: each bulk chunk commits on its own
+        insertedCommande = commandeRepository.saveAndFlush(createEntity().referentiel("BULK-EXISTING"));
+
+        List<CommandeDTO> commandeDTOs = List.of(
+            commandeMapper.toDto(createEntity().referentiel("BULK-1")),
+            commandeMapper.toDto(createEntity().referentiel("BULK-1")),
+            commandeMapper.toDto(createEntity().referentiel("BULK-EXISTING")),
+            commandeMapper.toDto(createEntity().referentiel("BULK-2").userId(null)),
+            commandeMapper.toDto(createEntity().referentiel("BULK-3"))
+        );
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        try {
+            restCommandeMockMvc
+                .perform(
+                    post(ENTITY_API_URL + "/_bulk").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(commandeDTOs))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.rejected").value(3))
+                .andExpect(jsonPath("$.items.[*].index").value(contains(0, 1, 2, 3, 4)))
+                .andExpect(jsonPath("$.items.[*].status").value(contains("CREATED", "REJECTED", "REJECTED", "REJECTED", "CREATED")))
+                .andExpect(
+                    jsonPath("$.items.[*].error").value(contains(null, "referentielduplicate", "referentielexists", "invalid.userId", null))
+                );
+
+            assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+        } finally {
+            commandeRepository
+                .findAll((root, query, builder) -> root.get("referentiel").in("BULK-1", "BULK-3"))
+                .forEach(commandeRepository::delete);
+        }
+    }
+
+    @Test
+    @Transactional
+    void createCommandeWithIdempotencyKeyIsReplayed() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        String idempotencyKey = UUID.randomUUID().toString();
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+
+        var firstCommandeDTO = om.readValue(
+            restCommandeMockMvc
+                .perform(
+                    post(ENTITY_API_URL)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(commandeDTO))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            CommandeDTO.class
+        );
+
+        // The retry gets the original commande back and creates nothing
+        restCommandeMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isCreated())
+            .andExpect(header().string("Location", "/api/commandes/" + firstCommandeDTO.getId()))
+            .andExpect(jsonPath("$.id").value(firstCommandeDTO.getId().intValue()));
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        insertedCommande = commandeMapper.toEntity(firstCommandeDTO);
+    }
+
+    @Test
+    @Transactional
+    void createCommandeWithReusedIdempotencyKey() throws Exception {
+        String idempotencyKey = UUID.randomUUID().toString();
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+
+        var firstCommandeDTO = om.readValue(
+            restCommandeMockMvc
+                .perform(
+                    post(ENTITY_API_URL)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(commandeDTO))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            CommandeDTO.class
+        );
+        insertedCommande = commandeMapper.toEntity(firstCommandeDTO);
+        long databaseSizeBeforeReuse = getRepositoryCount();
+
+        // Same key, different commande
+        commandeDTO.setReferentiel(UPDATED_REFERENTIEL);
+        restCommandeMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeReuse);
+    }
+
     @Test
     @Transactional
     void createCommandeWithExistingId() throws Exception {
@@ -203,8 +339,257 @@ class CommandeResourceIT {
         insertedCommande = commandeRepository.saveAndFlush(commande);
 
         // Get all the commandeList
+        MvcResult result = restCommandeMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(commande.getId().intValue())))
+            .andExpect(jsonPath("$.[*].referentiel").value(hasItem(DEFAULT_REFERENTIEL)))
+            .andExpect(jsonPath("$.[*].userId").value(hasItem(DEFAULT_USER_ID)))
+            .andExpect(jsonPath("$.[*].dateCommande").value(hasItem(DEFAULT_DATE_COMMANDE.toString())))
+            .andReturn();
+
+        // In keyset order: newest first, then highest id first
+        List<CommandeDTO> commandes = List.of(om.readValue(result.getResponse().getContentAsByteArray(), CommandeDTO[].class));
+        assertThat(commandes).isSortedAccordingTo(
+            Comparator.comparing(CommandeDTO::getDateCommande).thenComparing(CommandeDTO::getId).reversed()
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesWithSort() throws Exception {
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "?sort=id,desc")).andExpect(status().isBadRequest());
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "/user/" + DEFAULT_USER_ID + "?sort=id,desc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByKeyset() throws Exception {
+        // Initialize the database with commandes newer than anything else in the table
+        Instant newest = Instant.parse("2999-01-01T00:00:00Z");
+        Commande first = commandeRepository.saveAndFlush(createEntity().referentiel("KEYSET-1").dateCommande(newest));
+        Commande second = commandeRepository.saveAndFlush(createEntity().referentiel("KEYSET-2").dateCommande(newest));
+        Commande third = commandeRepository.saveAndFlush(createEntity().referentiel("KEYSET-3").dateCommande(newest.minusSeconds(1)));
+
+        // First page: same date, highest id first
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.[1].id").value(first.getId().intValue()));
+
+        // Next page continues strictly after the last row of the first one
+        String cursor = new CommandeCursor(newest, first.getId()).encode();
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "?size=1&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesWithInvalidCursor() throws Exception {
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCommandesOfUserByKeyset() throws Exception {
+        // Initialize the database with the commandes of two users
+        Instant date = DEFAULT_DATE_COMMANDE;
+        Commande first = commandeRepository.saveAndFlush(createEntity().referentiel("HISTORY-1").userId("HISTORY").dateCommande(date));
+        Commande second = commandeRepository.saveAndFlush(createEntity().referentiel("HISTORY-2").userId("HISTORY").dateCommande(date));
+        Commande third = commandeRepository.saveAndFlush(
+            createEntity().referentiel("HISTORY-3").userId("HISTORY").dateCommande(date.minusSeconds(1))
+        );
+        commandeRepository.saveAndFlush(createEntity().referentiel("HISTORY-OTHER").userId("OTHER").dateCommande(date));
+
+        // First page: same date, highest id first
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/user/HISTORY?size=2"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.[0].referentiel").value("HISTORY-2"))
+            .andExpect(jsonPath("$.[0].userId").value("HISTORY"))
+            .andExpect(jsonPath("$.[0].dateCommande").value(date.toString()))
+            .andExpect(jsonPath("$.[0].version").value(0))
+            .andExpect(jsonPath("$.[1].id").value(first.getId().intValue()));
+
+        // Last page: no next link
+        String cursor = new CommandeCursor(date, first.getId()).encode();
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/user/HISTORY?size=2&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Link"))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].id").value(third.getId().intValue()));
+    }
+
+    @Test
+    @Transactional
+    void getCommandeStats() throws Exception {
+        // Initialize the database with days nothing else uses
+        Instant day = Instant.parse("2998-01-01T10:00:00Z");
+        commandeRepository.saveAndFlush(createEntity().referentiel("STATS-1").userId("STATS-A").dateCommande(day));
+        commandeRepository.saveAndFlush(createEntity().referentiel("STATS-2").userId("STATS-B").dateCommande(day));
+        Commande moved = commandeRepository.saveAndFlush(
+            createEntity().referentiel("STATS-3").userId("STATS-A").dateCommande(day.plus(1, ChronoUnit.DAYS))
+        );
+
+        // Pending deltas are counted
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/stats?from=2998-01-01&to=2998-01-03"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(2)))
+            .andExpect(jsonPath("$.[0].day").value("2998-01-01"))
+            .andExpect(jsonPath("$.[0].count").value(2))
+            .andExpect(jsonPath("$.[1].day").value("2998-01-02"))
+            .andExpect(jsonPath("$.[1].count").value(1));
+
+        // Folded deltas are counted the same, and moving or deleting a commande is accounted for
+        assertThat(commandeStatsService.fold()).isPositive();
+        commandeRepository.saveAndFlush(moved.dateCommande(day));
+        commandeRepository.deleteAllByIdInBatch(List.of(moved.getId()));
+        commandeRepository.flush();
+
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/stats?userId=STATS-A&from=2998-01-01&to=2998-01-03"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].day").value("2998-01-01"))
+            .andExpect(jsonPath("$.[0].count").value(1));
         restCommandeMockMvc
-            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .perform(get(ENTITY_API_URL + "/stats?from=2998-01-01&to=2998-01-03"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].count").value(2));
+    }
+
+    @Test
+    @Transactional
+    void getCommandeStatsWithInvalidRange() throws Exception {
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "/stats?from=2998-01-02&to=2998-01-01")).andExpect(status().isBadRequest());
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "/stats?from=2996-01-01&to=2998-01-01")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCommandesOfUserWithInvalidCursor() throws Exception {
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "/user/HISTORY?cursor=invalid")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCommandesByIdFiltering() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        Long id = commande.getId();
+
+        defaultCommandeFiltering("id.equals=" + id, "id.notEquals=" + id);
+
+        defaultCommandeFiltering("id.greaterThanOrEqual=" + id, "id.greaterThan=" + id);
+
+        defaultCommandeFiltering("id.lessThanOrEqual=" + id, "id.lessThan=" + id);
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByReferentielIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where referentiel equals to
+        defaultCommandeFiltering("referentiel.equals=" + DEFAULT_REFERENTIEL, "referentiel.equals=" + UPDATED_REFERENTIEL);
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByReferentielIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where referentiel in
+        defaultCommandeFiltering(
+            "referentiel.in=" + DEFAULT_REFERENTIEL + "," + UPDATED_REFERENTIEL,
+            "referentiel.in=" + UPDATED_REFERENTIEL
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByUserIdIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where userId equals to
+        defaultCommandeFiltering("userId.equals=" + DEFAULT_USER_ID, "userId.equals=" + UPDATED_USER_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByUserIdIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where userId in
+        defaultCommandeFiltering("userId.in=" + DEFAULT_USER_ID + "," + UPDATED_USER_ID, "userId.in=" + UPDATED_USER_ID);
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByDateCommandeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where dateCommande equals to
+        defaultCommandeFiltering("dateCommande.equals=" + DEFAULT_DATE_COMMANDE, "dateCommande.equals=" + UPDATED_DATE_COMMANDE);
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByDateCommandeIsInShouldWork() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where dateCommande in
+        defaultCommandeFiltering(
+            "dateCommande.in=" + DEFAULT_DATE_COMMANDE + "," + UPDATED_DATE_COMMANDE,
+            "dateCommande.in=" + UPDATED_DATE_COMMANDE
+        );
+    }
+
+    @Test
+    @Transactional
+    void getAllCommandesByDateCommandeIsInRange() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get all the commandeList where dateCommande is in [DEFAULT_DATE_COMMANDE, UPDATED_DATE_COMMANDE)
+        defaultCommandeFiltering(
+            "dateCommande.greaterThanOrEqual=" + DEFAULT_DATE_COMMANDE + "&dateCommande.lessThan=" + UPDATED_DATE_COMMANDE,
+            "dateCommande.greaterThan=" + DEFAULT_DATE_COMMANDE
+        );
+    }
+
+    private void defaultCommandeFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
+        defaultCommandeShouldBeFound(shouldBeFound);
+        defaultCommandeShouldNotBeFound(shouldNotBeFound);
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned.
+     */
+    private void defaultCommandeShouldBeFound(String filter) throws Exception {
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(commande.getId().intValue())))
@@ -213,6 +598,74 @@ class CommandeResourceIT {
             .andExpect(jsonPath("$.[*].dateCommande").value(hasItem(DEFAULT_DATE_COMMANDE.toString())));
     }
 
+    /**
+     * Executes the search, and checks that the default entity is not returned.
+     */
+    private void defaultCommandeShouldNotBeFound(String filter) throws Exception {
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "?" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void exportCommandesAsNdjson() throws Exception {
+        // Not transactional: the export runs on the async request thread and must see committed data
+        Instant date = Instant.parse("2999-06-01T00:00:00Z");
+        insertedCommande = commandeRepository.saveAndFlush(createEntity().referentiel("EXPORT-NDJSON").dateCommande(date));
+
+        MvcResult mvcResult = restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/export?format=ndjson&from={from}&to={to}", date, date.plusSeconds(1)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        String body = restCommandeMockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(1);
+        CommandeDTO exported = om.readValue(lines[0], CommandeDTO.class);
+        assertThat(exported.getId()).isEqualTo(insertedCommande.getId());
+        assertThat(exported.getReferentiel()).isEqualTo("EXPORT-NDJSON");
+    }
+
+    @Test
+    void exportCommandesAsCsv() throws Exception {
+        Instant date = Instant.parse("2999-06-02T00:00:00Z");
+        insertedCommande = commandeRepository.saveAndFlush(createEntity().referentiel("EXPORT,\"CSV\"").dateCommande(date));
+
+        MvcResult mvcResult = restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/export?format=csv&from={from}&to={to}", date, date.plusSeconds(1)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        restCommandeMockMvc
+            .perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(
+                content()
+                    .string(
+                        "id,referentiel,userId,dateCommande\n" +
+                        insertedCommande.getId() +
+                        ",\"EXPORT,\"\"CSV\"\"\"," +
+                        DEFAULT_USER_ID +
+                        "," +
+                        date +
+                        "\n"
+                    )
+            );
+    }
+
+    @Test
+    void exportCommandesWithUnsupportedFormat() throws Exception {
+        restCommandeMockMvc.perform(get(ENTITY_API_URL + "/export?format=xml")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getCommande() throws Exception {
@@ -230,6 +683,189 @@ class CommandeResourceIT {
             .andExpect(jsonPath("$.dateCommande").value(DEFAULT_DATE_COMMANDE.toString()));
     }
 
+    @Test
+    @Transactional
+    void getCommandesByIds() throws Exception {
+        // Initialize the database
+        Commande first = commandeRepository.saveAndFlush(createEntity().referentiel("MGET-1"));
+        Commande second = commandeRepository.saveAndFlush(createEntity().referentiel("MGET-2"));
+        long missingId = longCount.incrementAndGet();
+
+        restCommandeMockMvc
+            .perform(
+                post(ENTITY_API_URL + "/_mget")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(List.of(second.getId(), missingId, first.getId())))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.commandes", hasSize(2)))
+            .andExpect(jsonPath("$.commandes.[0].id").value(second.getId().intValue()))
+            .andExpect(jsonPath("$.commandes.[0].referentiel").value("MGET-2"))
+            .andExpect(jsonPath("$.commandes.[1].id").value(first.getId().intValue()))
+            .andExpect(jsonPath("$.missingIds", hasSize(1)))
+            .andExpect(jsonPath("$.missingIds.[0]").value(missingId));
+    }
+
+    @Test
+    @Transactional
+    void getCommandesByTooManyIds() throws Exception {
+        List<Long> ids = LongStream.rangeClosed(1, 201).boxed().toList();
+
+        restCommandeMockMvc
+            .perform(post(ENTITY_API_URL + "/_mget").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(ids)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCommandeByReferentiel() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        // Get the commande by its natural id
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/by-referentiel/{referentiel}", DEFAULT_REFERENTIEL))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(commande.getId().intValue()))
+            .andExpect(jsonPath("$.referentiel").value(DEFAULT_REFERENTIEL))
+            .andExpect(jsonPath("$.userId").value(DEFAULT_USER_ID))
+            .andExpect(jsonPath("$.dateCommande").value(DEFAULT_DATE_COMMANDE.toString()));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingCommandeByReferentiel() throws Exception {
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/by-referentiel/{referentiel}", UPDATED_REFERENTIEL))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getCommandeAfterUpdateIsNotServedFromTheJsonCache() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        Cache commandeJsonCache = cacheManager.getCache(CacheNames.COMMANDE_JSON);
+
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL_ID, commande.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.referentiel").value(DEFAULT_REFERENTIEL));
+        String previousKey = CommandeResource.jsonCacheKey(commande.getId(), commande.getVersion());
+        assertThat(commandeJsonCache.get(previousKey)).isNotNull();
+
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+        commandeDTO.setReferentiel(UPDATED_REFERENTIEL);
+        restCommandeMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, commande.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isOk());
+        assertThat(commandeJsonCache.get(previousKey)).isNull();
+
+        // The update statement bypasses the persistence context of the test transaction, and the loader of Commande cannot refresh
+        em.detach(commande);
+        commande = commandeRepository.findById(commande.getId()).orElseThrow();
+        // The entry of the new version is not there yet
+        assertThat(commandeJsonCache.get(CommandeResource.jsonCacheKey(commande.getId(), commande.getVersion()))).isNull();
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL_ID, commande.getId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.referentiel").value(UPDATED_REFERENTIEL));
+    }
+
+    @Test
+    @Transactional
+    void getCommandeByReferentielCreatedAfterAMiss() throws Exception {
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/by-referentiel/{referentiel}", DEFAULT_REFERENTIEL))
+            .andExpect(status().isNotFound());
+
+        // Creating the commande through the service invalidates the recorded miss
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+        restCommandeMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(commandeDTO)))
+            .andExpect(status().isCreated());
+
+        restCommandeMockMvc
+            .perform(get(ENTITY_API_URL + "/by-referentiel/{referentiel}", DEFAULT_REFERENTIEL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.referentiel").value(DEFAULT_REFERENTIEL));
+    }
+
+    @Test
+    @Transactional
+    void upsertNewCommandeByReferentiel() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+
+        var returnedCommandeDTO = om.readValue(
+            restCommandeMockMvc
+                .perform(
+                    put(ENTITY_API_URL + "/by-referentiel/{referentiel}", DEFAULT_REFERENTIEL)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(commandeDTO))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            CommandeDTO.class
+        );
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        insertedCommande = commandeMapper.toEntity(returnedCommandeDTO);
+        assertPersistedCommandeToMatchAllProperties(insertedCommande);
+    }
+
+    @Test
+    @Transactional
+    void upsertExistingCommandeByReferentiel() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        em.detach(commande);
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        CommandeDTO commandeDTO = commandeMapper.toDto(
+            createEntity().referentiel(DEFAULT_REFERENTIEL).userId(UPDATED_USER_ID).dateCommande(UPDATED_DATE_COMMANDE)
+        );
+        restCommandeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/by-referentiel/{referentiel}", DEFAULT_REFERENTIEL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(commande.getId().intValue()))
+            .andExpect(jsonPath("$.userId").value(UPDATED_USER_ID))
+            .andExpect(jsonPath("$.version").value(commande.getVersion() + 1));
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertPersistedCommandeToMatchAllProperties(
+            createEntity().id(commande.getId()).userId(UPDATED_USER_ID).dateCommande(UPDATED_DATE_COMMANDE)
+        );
+    }
+
+    @Test
+    @Transactional
+    void upsertCommandeWithReferentielMismatch() throws Exception {
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+
+        restCommandeMockMvc
+            .perform(
+                put(ENTITY_API_URL + "/by-referentiel/{referentiel}", UPDATED_REFERENTIEL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isBadRequest());
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+    }
+
     @Test
     @Transactional
     void getNonExistingCommande() throws Exception {
@@ -265,6 +901,29 @@ class CommandeResourceIT {
         assertPersistedCommandeToMatchAllProperties(updatedCommande);
     }
 
+    @Test
+    @Transactional
+    void putCommandeWithoutVersionReturnsTheStoredVersion() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        em.detach(commande);
+
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+        commandeDTO.setUserId(UPDATED_USER_ID);
+        commandeDTO.setVersion(null);
+
+        restCommandeMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, commandeDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(commande.getVersion().intValue() + 1));
+
+        assertThat(getPersistedCommande(commande).getVersion()).isEqualTo(commande.getVersion() + 1);
+    }
+
     @Test
     @Transactional
     void putNonExistingCommande() throws Exception {
@@ -355,6 +1014,39 @@ class CommandeResourceIT {
         assertCommandeUpdatableFieldsEquals(createUpdateProxyForBean(partialUpdatedCommande, commande), getPersistedCommande(commande));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateCommandeWritesOnlyPatchedColumns() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        em.detach(commande);
+        // A column changed behind Hibernate's back, which a full-row UPDATE would overwrite
+        em.createNativeQuery("update commande set user_id = ? where id = ?")
+            .setParameter(1, UPDATED_USER_ID)
+            .setParameter(2, commande.getId())
+            .executeUpdate();
+
+        CommandeDTO patchDTO = new CommandeDTO();
+        patchDTO.setId(commande.getId());
+        patchDTO.setVersion(commande.getVersion());
+        patchDTO.setDateCommande(UPDATED_DATE_COMMANDE);
+
+        restCommandeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, patchDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(patchDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.userId").value(UPDATED_USER_ID))
+            .andExpect(jsonPath("$.dateCommande").value(UPDATED_DATE_COMMANDE.toString()))
+            .andExpect(jsonPath("$.version").value(commande.getVersion().intValue() + 1));
+
+        insertedCommande = getPersistedCommande(commande);
+        assertThat(insertedCommande.getUserId()).isEqualTo(UPDATED_USER_ID);
+        assertThat(insertedCommande.getDateCommande()).isEqualTo(UPDATED_DATE_COMMANDE);
+    }
+
     @Test
     @Transactional
     void fullUpdateCommandeWithPatch() throws Exception {
@@ -445,11 +1137,96 @@ class CommandeResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeUpdate);
     }
 
+    @Test
+    @Transactional
+    void putCommandeWithStaleVersion() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        em.detach(commande);
+
+        CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+        commandeDTO.setUserId(UPDATED_USER_ID);
+        commandeDTO.setVersion(commande.getVersion() + 1);
+
+        restCommandeMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, commandeDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isConflict());
+
+        assertPersistedCommandeToMatchAllProperties(commande);
+    }
+
+    @Test
+    @Transactional
+    void patchCommandeWithStaleVersion() throws Exception {
+        // Initialize the database
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+
+        CommandeDTO commandeDTO = new CommandeDTO();
+        commandeDTO.setId(commande.getId());
+        commandeDTO.setUserId(UPDATED_USER_ID);
+        commandeDTO.setVersion(commande.getVersion() + 1);
+
+        restCommandeMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, commandeDTO.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(commandeDTO))
+            )
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void putAndPatchCommandeStatementCount() throws Exception {
+        // Not transactional: the statements of each request must all run before its own commit
+        insertedCommande = commandeRepository.saveAndFlush(commande);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            CommandeDTO commandeDTO = commandeMapper.toDto(commande);
+            commandeDTO.setUserId(UPDATED_USER_ID);
+            statistics.clear();
+            restCommandeMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, commandeDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsBytes(commandeDTO))
+                )
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(commande.getVersion().intValue() + 1));
+            // A single UPDATE, no existence check nor merge SELECT
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            CommandeDTO patchDTO = new CommandeDTO();
+            patchDTO.setId(commande.getId());
+            patchDTO.setDateCommande(UPDATED_DATE_COMMANDE);
+            statistics.clear();
+            restCommandeMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, patchDTO.getId())
+                        .contentType("application/merge-patch+json")
+                        .content(om.writeValueAsBytes(patchDTO))
+                )
+                .andExpect(status().isOk());
+            // The targeted UPDATE, then the SELECT of the response as the second-level cache is off in tests
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
     @Test
     @Transactional
     void deleteCommande() throws Exception {
         // Initialize the database
         insertedCommande = commandeRepository.saveAndFlush(commande);
+        restCommandeMockMvc.perform(get(ENTITY_API_URL_ID, commande.getId())).andExpect(status().isOk());
+        String jsonCacheKey = CommandeResource.jsonCacheKey(commande.getId(), commande.getVersion());
+        assertThat(cacheManager.getCache(CacheNames.COMMANDE_JSON).get(jsonCacheKey)).isNotNull();
 
         long databaseSizeBeforeDelete = getRepositoryCount();
 
@@ -457,6 +1234,7 @@ class CommandeResourceIT {
         restCommandeMockMvc
             .perform(delete(ENTITY_API_URL_ID, commande.getId()).accept(MediaType.APPLICATION_JSON))
             .andExpect(status().isNoContent());
+        assertThat(cacheManager.getCache(CacheNames.COMMANDE_JSON).get(jsonCacheKey)).isNull();
 
         // Validate the database contains one less item
         assertDecrementedRepositoryCount(databaseSizeBeforeDelete);